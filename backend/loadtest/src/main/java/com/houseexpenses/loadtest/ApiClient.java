@@ -0,0 +1,58 @@
+package com.houseexpenses.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Thin HTTP client that records the latency of every call under its endpoint label.
+ */
+public class ApiClient {
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    public ApiClient(String baseUrl, LatencyRecorder recorder) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    public String get(String endpoint, String pathAndQuery, String token) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery)).GET(), token);
+    }
+
+    public String post(String endpoint, String path, String jsonBody, String token) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonBody)), token);
+    }
+
+    private String send(String endpoint, HttpRequest.Builder builder, String token) {
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.timeout(Duration.ofSeconds(60)).build();
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            boolean success = response.statusCode() < 400;
+            recorder.record(endpoint, elapsed, success);
+            return success ? response.body() : null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception ex) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+}
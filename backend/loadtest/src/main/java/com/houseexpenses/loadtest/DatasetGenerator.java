@@ -0,0 +1,233 @@
+package com.houseexpenses.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeds PostgreSQL with synthetic households through COPY. The schema must already exist,
+ * e.g. by starting the API once against the database with ddl-auto=update.
+ */
+public class DatasetGenerator {
+
+    // Relative spending per month, January first: summer holidays and December peak
+    private static final double[] SEASONALITY = {1.0, 0.85, 0.9, 0.95, 1.0, 1.1, 1.35, 1.3, 1.0, 0.95, 1.05, 1.5};
+
+    private static final List<CategoryTemplate> CATEGORIES = List.of(
+            new CategoryTemplate("Housing", "home", "#3498DB", "monthly", 0.08, 60, List.of(
+                    new SubCategoryTemplate("Rent", 850.0, true),
+                    new SubCategoryTemplate("Electricity", null, true),
+                    new SubCategoryTemplate("Water", null, true),
+                    new SubCategoryTemplate("Internet", 35.0, true))),
+            new CategoryTemplate("Groceries", "cart", "#2ECC71", "monthly", 0.40, 45, List.of(
+                    new SubCategoryTemplate("Supermarket", null, false),
+                    new SubCategoryTemplate("Bakery", null, false),
+                    new SubCategoryTemplate("Butcher", null, false))),
+            new CategoryTemplate("Transport", "car", "#E67E22", "monthly", 0.17, 35, List.of(
+                    new SubCategoryTemplate("Fuel", null, false),
+                    new SubCategoryTemplate("Public transport", 40.0, true),
+                    new SubCategoryTemplate("Parking", null, false))),
+            new CategoryTemplate("Health", "medkit", "#E74C3C", "monthly", 0.08, 40, List.of(
+                    new SubCategoryTemplate("Pharmacy", null, false),
+                    new SubCategoryTemplate("Doctor", null, false),
+                    new SubCategoryTemplate("Gym", 30.0, true))),
+            new CategoryTemplate("Leisure", "game-controller", "#9B59B6", "monthly", 0.22, 30, List.of(
+                    new SubCategoryTemplate("Restaurants", null, false),
+                    new SubCategoryTemplate("Cinema", null, false),
+                    new SubCategoryTemplate("Travel", null, false))),
+            new CategoryTemplate("Education", "school", "#1ABC9C", "monthly", 0.05, 50, List.of(
+                    new SubCategoryTemplate("Books", null, false),
+                    new SubCategoryTemplate("Courses", null, false))),
+            new CategoryTemplate("Insurance", "shield", "#34495E", "annual", 0.0, 0, List.of(
+                    new SubCategoryTemplate("Car insurance", 400.0, true),
+                    new SubCategoryTemplate("Home insurance", 200.0, true))),
+            new CategoryTemplate("Taxes", "document", "#7F8C8D", "annual", 0.0, 0, List.of(
+                    new SubCategoryTemplate("Property tax", 300.0, true),
+                    new SubCategoryTemplate("Vehicle tax", 120.0, true))));
+
+    private final String jdbcUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final int users;
+    private final int expensesPerUser;
+    private final int years;
+    private final Random random;
+
+    public DatasetGenerator(String jdbcUrl, String dbUser, String dbPassword,
+                            int users, int expensesPerUser, int years, long randomSeed) {
+        this.jdbcUrl = jdbcUrl;
+        this.dbUser = dbUser;
+        this.dbPassword = dbPassword;
+        this.users = users;
+        this.expensesPerUser = expensesPerUser;
+        this.years = years;
+        this.random = new Random(randomSeed);
+    }
+
+    public void generate(Path usersFile) throws SQLException, IOException {
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusYears(years).withDayOfYear(1);
+        List<String> userIds = new ArrayList<>();
+        long started = System.nanoTime();
+        long totalExpenses = 0;
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword)) {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            for (int u = 0; u < users; u++) {
+                UUID userId = new UUID(random.nextLong(), random.nextLong());
+                userIds.add(userId.toString());
+                totalExpenses += seedUser(copy, userId, firstDay, today);
+
+                if ((u + 1) % 10 == 0 || u + 1 == users) {
+                    System.out.printf("Seeded %d/%d users, %d expenses%n", u + 1, users, totalExpenses);
+                }
+            }
+        }
+
+        Files.write(usersFile, userIds);
+        System.out.printf("Done in %d s, user ids written to %s%n",
+                (System.nanoTime() - started) / 1_000_000_000L, usersFile.toAbsolutePath());
+    }
+
+    private long seedUser(CopyManager copy, UUID userId, LocalDate firstDay, LocalDate today)
+            throws SQLException, IOException {
+        String now = OffsetDateTime.now().toString();
+        StringBuilder profiles = new StringBuilder();
+        StringBuilder categories = new StringBuilder();
+        StringBuilder subCategories = new StringBuilder();
+        StringBuilder budgets = new StringBuilder();
+        StringBuilder expenses = new StringBuilder();
+
+        csv(profiles, userId, "Load test " + userId.toString().substring(0, 8), "EUR", "pt-PT", 2500, 30000, now, now);
+
+        List<SeededCategory> seeded = new ArrayList<>();
+        for (int c = 0; c < CATEGORIES.size(); c++) {
+            CategoryTemplate template = CATEGORIES.get(c);
+            UUID categoryId = randomUuid();
+            csv(categories, categoryId, userId, template.name(), template.icon(), template.color(),
+                    template.expenseType(), c, true, now, now);
+
+            List<UUID> subCategoryIds = new ArrayList<>();
+            for (int s = 0; s < template.subCategories().size(); s++) {
+                SubCategoryTemplate sub = template.subCategories().get(s);
+                UUID subCategoryId = randomUuid();
+                subCategoryIds.add(subCategoryId);
+                csv(subCategories, subCategoryId, categoryId, sub.name(), template.icon(), s,
+                        sub.fixedAmount() == null && sub.mandatory() ? 150.0 : null,
+                        sub.mandatory(), sub.fixedAmount(), true, now, now);
+
+                if (sub.fixedAmount() != null) {
+                    seedFixedPayments(expenses, userId, categoryId, subCategoryId, sub, template, firstDay, today, now);
+                }
+            }
+
+            double monthlyLimit = Math.max(100, template.share() * 2000);
+            csv(budgets, randomUuid(), userId, categoryId, null, money(monthlyLimit / 4), 80, "weekly", now, now);
+            csv(budgets, randomUuid(), userId, categoryId, null, money(monthlyLimit), 80, "monthly", now, now);
+            csv(budgets, randomUuid(), userId, categoryId, null, money(monthlyLimit * 12), 90, "annual", now, now);
+
+            seeded.add(new SeededCategory(categoryId, subCategoryIds, template));
+        }
+
+        int days = (int) (today.toEpochDay() - firstDay.toEpochDay()) + 1;
+        long variableExpenses = 0;
+        while (variableExpenses < expensesPerUser) {
+            LocalDate date = firstDay.plusDays(random.nextInt(days));
+            // Rejection sampling against the seasonal curve
+            if (random.nextDouble() * 1.5 > SEASONALITY[date.getMonthValue() - 1]) {
+                continue;
+            }
+            SeededCategory category = pickVariableCategory(seeded);
+            UUID subCategoryId = category.subCategoryIds().get(random.nextInt(category.subCategoryIds().size()));
+            double amount = category.template().averageAmount() * Math.exp(random.nextGaussian() * 0.6 - 0.18);
+            csv(expenses, randomUuid(), userId, category.id(), subCategoryId, money(amount),
+                    "Synthetic expense", date, "monthly", now, now);
+            variableExpenses++;
+        }
+
+        copy.copyIn("COPY user_profiles (id, display_name, currency, locale, monthly_budget_limit, " +
+                "annual_budget_limit, created_at, updated_at) FROM STDIN WITH (FORMAT csv)", new StringReader(profiles.toString()));
+        copy.copyIn("COPY categories (id, user_id, name, icon, color, expense_type, display_order, is_active, " +
+                "created_at, updated_at) FROM STDIN WITH (FORMAT csv)", new StringReader(categories.toString()));
+        copy.copyIn("COPY subcategories (id, category_id, name, icon, display_order, budget_limit, is_mandatory, " +
+                "fixed_amount, is_active, created_at, updated_at) FROM STDIN WITH (FORMAT csv)", new StringReader(subCategories.toString()));
+        copy.copyIn("COPY budgets (id, user_id, category_id, subcategory_id, limit_amount, warning_threshold, period, " +
+                "created_at, updated_at) FROM STDIN WITH (FORMAT csv)", new StringReader(budgets.toString()));
+        return copy.copyIn("COPY expenses (id, user_id, category_id, subcategory_id, amount, description, expense_date, " +
+                "expense_type, created_at, updated_at) FROM STDIN WITH (FORMAT csv)", new StringReader(expenses.toString()));
+    }
+
+    private void seedFixedPayments(StringBuilder expenses, UUID userId, UUID categoryId, UUID subCategoryId,
+                                   SubCategoryTemplate sub, CategoryTemplate template,
+                                   LocalDate firstDay, LocalDate today, String now) {
+        boolean annual = template.expenseType().equals("annual");
+        for (LocalDate period = firstDay; !period.isAfter(today); period = annual ? period.plusYears(1) : period.plusMonths(1)) {
+            LocalDate paymentDate = annual ? period.plusDays(random.nextInt(60)) : period.plusDays(random.nextInt(5));
+            if (!paymentDate.isAfter(today)) {
+                csv(expenses, randomUuid(), userId, categoryId, subCategoryId, money(sub.fixedAmount()),
+                        sub.name(), paymentDate, template.expenseType(), now, now);
+            }
+        }
+    }
+
+    private SeededCategory pickVariableCategory(List<SeededCategory> categories) {
+        double target = random.nextDouble();
+        double cumulative = 0;
+        for (SeededCategory category : categories) {
+            cumulative += category.template().share();
+            if (target < cumulative) {
+                return category;
+            }
+        }
+        return categories.get(1);
+    }
+
+    private UUID randomUuid() {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    private static BigDecimal money(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static void csv(StringBuilder out, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Object value = values[i];
+            if (value instanceof String text) {
+                out.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else if (value != null) {
+                out.append(value);
+            }
+        }
+        out.append('\n');
+    }
+
+    private record CategoryTemplate(String name, String icon, String color, String expenseType,
+                                    double share, double averageAmount, List<SubCategoryTemplate> subCategories) {
+    }
+
+    private record SubCategoryTemplate(String name, Double fixedAmount, boolean mandatory) {
+    }
+
+    private record SeededCategory(UUID id, List<UUID> subCategoryIds, CategoryTemplate template) {
+    }
+}
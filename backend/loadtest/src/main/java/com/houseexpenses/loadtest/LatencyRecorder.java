@@ -0,0 +1,56 @@
+package com.houseexpenses.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects raw latencies per endpoint. Samples taken before {@link #startRecording()}
+ * are discarded so the warm-up phase does not skew the percentiles.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, EndpointSamples> samples = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    public void startRecording() {
+        recording = true;
+    }
+
+    public void record(String endpoint, long nanos, boolean success) {
+        if (recording) {
+            samples.computeIfAbsent(endpoint, e -> new EndpointSamples()).add(nanos, success);
+        }
+    }
+
+    public Map<String, EndpointSamples> getSamples() {
+        return samples;
+    }
+
+    public static final class EndpointSamples {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long nanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        public synchronized long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        public synchronized long getErrors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.houseexpenses.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint throughput and latency percentiles of one run, serializable to JSON so
+ * runs against different releases can be compared.
+ */
+public class LoadReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public String label;
+    public long durationSeconds;
+    public int concurrency;
+    public List<EndpointResult> endpoints = new ArrayList<>();
+
+    public static LoadReport from(String label, long durationSeconds, int concurrency, LatencyRecorder recorder) {
+        LoadReport report = new LoadReport();
+        report.label = label;
+        report.durationSeconds = durationSeconds;
+        report.concurrency = concurrency;
+
+        recorder.getSamples().forEach((endpoint, samples) -> {
+            long[] sorted = samples.sortedLatencies();
+            EndpointResult result = new EndpointResult();
+            result.endpoint = endpoint;
+            result.requests = sorted.length;
+            result.errors = samples.getErrors();
+            result.throughput = (double) sorted.length / durationSeconds;
+            result.p50Ms = percentile(sorted, 0.50);
+            result.p99Ms = percentile(sorted, 0.99);
+            result.p999Ms = percentile(sorted, 0.999);
+            result.maxMs = sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0;
+            report.endpoints.add(result);
+        });
+        report.endpoints.sort(Comparator.comparing(r -> r.endpoint));
+        return report;
+    }
+
+    public static LoadReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LoadReport.class);
+    }
+
+    public void write(Path path) throws IOException {
+        MAPPER.writeValue(path.toFile(), this);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+
+    public void print() {
+        System.out.printf("%nRun '%s': %d virtual users for %d s%n", label, concurrency, durationSeconds);
+        System.out.printf("%-45s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (EndpointResult r : endpoints) {
+            System.out.printf("%-45s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.endpoint, r.requests, r.errors, r.throughput, r.p50Ms, r.p99Ms, r.p999Ms, r.maxMs);
+        }
+    }
+
+    public static void compare(LoadReport baseline, LoadReport candidate) {
+        Map<String, EndpointResult> baselineByEndpoint = new TreeMap<>();
+        baseline.endpoints.forEach(r -> baselineByEndpoint.put(r.endpoint, r));
+
+        System.out.printf("%nComparing '%s' (baseline) with '%s'%n", baseline.label, candidate.label);
+        System.out.printf("%-45s %12s %12s %12s%n", "endpoint", "req/s", "p99", "p999");
+        for (EndpointResult r : candidate.endpoints) {
+            EndpointResult base = baselineByEndpoint.get(r.endpoint);
+            if (base == null) {
+                continue;
+            }
+            System.out.printf("%-45s %11s%% %11s%% %11s%%%n", r.endpoint,
+                    change(base.throughput, r.throughput), change(base.p99Ms, r.p99Ms), change(base.p999Ms, r.p999Ms));
+        }
+    }
+
+    private static String change(double before, double after) {
+        return before == 0 ? "n/a" : String.format("%+.1f", (after - before) * 100 / before);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    public static class EndpointResult {
+        public String endpoint;
+        public long requests;
+        public long errors;
+        public double throughput;
+        public double p50Ms;
+        public double p99Ms;
+        public double p999Ms;
+        public double maxMs;
+    }
+}
@@ -0,0 +1,83 @@
+package com.houseexpenses.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point for the load-test harness.
+ *
+ * <pre>
+ * seed    --jdbc-url=jdbc:postgresql://localhost:5432/house_expenses --db-user=postgres --db-password=postgres
+ *         [--users=50] [--expenses-per-user=20000] [--years=3] [--random-seed=42] [--users-file=users.txt]
+ * run     [--base-url=http://localhost:8080/api] [--users-file=users.txt] [--concurrency=50]
+ *         [--warmup=15] [--duration=60] [--scenarios=dashboard,charts,list,bulk] [--label=local] [--report=report.json]
+ * compare --baseline=before.json --candidate=after.json
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: LoadTest seed|run|compare [--option=value ...]");
+            System.exit(1);
+        }
+
+        Map<String, String> options = parseOptions(Arrays.copyOfRange(args, 1, args.length));
+        switch (args[0]) {
+            case "seed" -> new DatasetGenerator(
+                    required(options, "jdbc-url"),
+                    options.getOrDefault("db-user", "postgres"),
+                    options.getOrDefault("db-password", "postgres"),
+                    Integer.parseInt(options.getOrDefault("users", "50")),
+                    Integer.parseInt(options.getOrDefault("expenses-per-user", "20000")),
+                    Integer.parseInt(options.getOrDefault("years", "3")),
+                    Long.parseLong(options.getOrDefault("random-seed", "42")))
+                    .generate(Path.of(options.getOrDefault("users-file", "users.txt")));
+            case "run" -> {
+                LoadReport report = new ScenarioRunner(
+                        options.getOrDefault("base-url", "http://localhost:8080/api"),
+                        Path.of(options.getOrDefault("users-file", "users.txt")),
+                        Integer.parseInt(options.getOrDefault("concurrency", "50")),
+                        Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "15"))),
+                        Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))),
+                        List.of(options.getOrDefault("scenarios", "dashboard,charts,list,bulk").split(",")))
+                        .run(options.getOrDefault("label", "local"));
+                report.print();
+                if (options.containsKey("report")) {
+                    report.write(Path.of(options.get("report")));
+                }
+            }
+            case "compare" -> LoadReport.compare(
+                    LoadReport.read(Path.of(required(options, "baseline"))),
+                    LoadReport.read(Path.of(required(options, "candidate"))));
+            default -> throw new IllegalArgumentException("Unknown command: " + args[0]);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --option=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required option --" + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,179 @@
+package com.houseexpenses.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives the API with one virtual thread per simulated user. Each user logs in once and
+ * then loops over the selected scenarios until the run ends.
+ */
+public class ScenarioRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path usersFile;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final List<String> scenarios;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final ApiClient client;
+
+    public ScenarioRunner(String baseUrl, Path usersFile, int concurrency, Duration warmup,
+                          Duration duration, List<String> scenarios) {
+        this.usersFile = usersFile;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.scenarios = scenarios;
+        this.client = new ApiClient(baseUrl, recorder);
+    }
+
+    public LoadReport run(String label) throws IOException, InterruptedException {
+        List<String> userIds = Files.readAllLines(usersFile).stream().filter(line -> !line.isBlank()).toList();
+        if (userIds.isEmpty()) {
+            throw new IllegalStateException("No user ids in " + usersFile);
+        }
+
+        long end = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+        // Users are closed (awaited) first, so the fan-out executor accepts requests until every user is done
+        try (ExecutorService fanOut = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                String userId = userIds.get(i % userIds.size());
+                users.submit(() -> simulateUser(userId, end, fanOut));
+            }
+
+            Thread.sleep(warmup.toMillis());
+            recorder.startRecording();
+            System.out.printf("Warm-up done, measuring for %d s%n", duration.toSeconds());
+        }
+
+        return LoadReport.from(label, duration.toSeconds(), concurrency, recorder);
+    }
+
+    private void simulateUser(String userId, long end, ExecutorService executor) {
+        Session session = login(userId);
+        if (session == null) {
+            System.err.println("Login failed for " + userId);
+            return;
+        }
+
+        int iteration = 0;
+        while (System.nanoTime() < end) {
+            String scenario = scenarios.get(iteration++ % scenarios.size());
+            switch (scenario) {
+                case "dashboard" -> openDashboard(session, executor);
+                case "charts" -> swipeCharts(session);
+                case "list" -> scrollExpenseList(session);
+                case "bulk" -> bulkInsert(session);
+                default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+            }
+        }
+    }
+
+    private Session login(String userId) {
+        String body = client.post("POST /v1/auth/session", "/v1/auth/session",
+                "{\"userId\":\"" + userId + "\",\"displayName\":\"Load test\"}", null);
+        if (body == null) {
+            return null;
+        }
+        try {
+            String token = MAPPER.readTree(body).path("data").path("accessToken").asText();
+            JsonNode categories = MAPPER.readTree(client.get("GET /v1/categories", "/v1/categories", token)).path("data");
+
+            Session session = new Session(token);
+            for (JsonNode category : categories) {
+                for (JsonNode subCategory : category.path("subCategories")) {
+                    session.categoryIds.add(category.path("id").asText());
+                    session.subCategoryIds.add(subCategory.path("id").asText());
+                }
+            }
+            return session.categoryIds.isEmpty() ? null : session;
+        } catch (IOException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    // The app fires the launch requests in parallel
+    private void openDashboard(Session session, ExecutorService executor) {
+        CompletableFuture.allOf(
+                async(executor, () -> client.get("GET /v1/dashboard/summary", "/v1/dashboard/summary", session.token)),
+                async(executor, () -> client.get("GET /v1/dashboard/weekly", "/v1/dashboard/weekly", session.token)),
+                async(executor, () -> client.get("GET /v1/dashboard/monthly", "/v1/dashboard/monthly", session.token)),
+                async(executor, () -> client.get("GET /v1/dashboard/category-breakdown",
+                        "/v1/dashboard/category-breakdown?period=monthly", session.token)),
+                async(executor, () -> client.get("GET /v1/alerts/count", "/v1/alerts/count", session.token)),
+                async(executor, () -> client.get("GET /v1/categories", "/v1/categories", session.token)),
+                async(executor, () -> client.get("GET /v1/budgets/status", "/v1/budgets/status", session.token))
+        ).join();
+    }
+
+    private void swipeCharts(Session session) {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 1; i <= 6; i++) {
+            LocalDate target = month.minusMonths(i);
+            client.get("GET /v1/dashboard/monthly", "/v1/dashboard/monthly?year=" + target.getYear()
+                    + "&month=" + target.getMonthValue(), session.token);
+            client.get("GET /v1/dashboard/weekly", "/v1/dashboard/weekly?year=" + target.getYear()
+                    + "&month=" + target.getMonthValue() + "&day=10", session.token);
+        }
+        client.get("GET /v1/dashboard/annual", "/v1/dashboard/annual?year=" + (month.getYear() - 1), session.token);
+    }
+
+    private void scrollExpenseList(Session session) {
+        LocalDate today = LocalDate.now();
+        String filter = "&startDate=" + today.minusDays(90) + "&endDate=" + today
+                + "&categoryId=" + session.randomCategoryId();
+        for (int page = 0; page < 5; page++) {
+            client.get("GET /v1/expenses", "/v1/expenses?size=20&page=" + page, session.token);
+            client.get("GET /v1/expenses (filtered)", "/v1/expenses?size=20&page=" + page + filter, session.token);
+        }
+    }
+
+    private void bulkInsert(Session session) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 10; i++) {
+            int index = ThreadLocalRandom.current().nextInt(session.categoryIds.size());
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"categoryId\":\"").append(session.categoryIds.get(index))
+                    .append("\",\"subCategoryId\":\"").append(session.subCategoryIds.get(index))
+                    .append("\",\"amount\":").append(ThreadLocalRandom.current().nextInt(100, 10000) / 100.0)
+                    .append(",\"description\":\"Load test\",\"date\":\"").append(LocalDate.now()).append("\"}");
+        }
+        body.append(']');
+        client.post("POST /v1/expenses/bulk", "/v1/expenses/bulk", body.toString(), session.token);
+    }
+
+    private static CompletableFuture<Void> async(ExecutorService executor, Runnable call) {
+        return CompletableFuture.runAsync(call, executor);
+    }
+
+    private static final class Session {
+        private final String token;
+        private final List<String> categoryIds = new ArrayList<>();
+        private final List<String> subCategoryIds = new ArrayList<>();
+
+        private Session(String token) {
+            this.token = token;
+        }
+
+        private String randomCategoryId() {
+            return categoryIds.get(ThreadLocalRandom.current().nextInt(categoryIds.size()));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.houseexpenses.benchmark;
+
+import com.houseexpenses.model.Budget;
+import com.houseexpenses.model.Category;
+import com.houseexpenses.model.Expense;
+import com.houseexpenses.model.Money;
+import com.houseexpenses.model.SubCategory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * A deterministic household: categories with subcategories, monthly budgets and a year
+ * of expenses, plus the pre-aggregated rows the repository queries would return.
+ */
+public class HouseholdFixture {
+
+    public final UUID userId = UUID.randomUUID();
+    public final LocalDate referenceDate = LocalDate.of(2024, 6, 15);
+    public final List<Category> categories = new ArrayList<>();
+    public final List<Budget> budgets = new ArrayList<>();
+    public final List<Expense> expenses = new ArrayList<>();
+
+    public HouseholdFixture(int categoryCount, int subCategoriesPerCategory, int expenseCount) {
+        Random random = new Random(42);
+
+        for (int c = 0; c < categoryCount; c++) {
+            Category category = Category.builder()
+                    .id(UUID.randomUUID())
+                    .userId(userId)
+                    .name("Category " + c)
+                    .icon("home")
+                    .color("#3498DB")
+                    .expenseType(c % 4 == 0 ? Category.ExpenseType.annual : Category.ExpenseType.monthly)
+                    .displayOrder(c)
+                    .build();
+
+            for (int s = 0; s < subCategoriesPerCategory; s++) {
+                category.getSubCategories().add(SubCategory.builder()
+                        .id(UUID.randomUUID())
+                        .category(category)
+                        .name("Sub " + c + "." + s)
+                        .icon("cart")
+                        .displayOrder(s)
+                        .isMandatory(s % 2 == 0)
+                        .fixedAmount(s % 3 == 0 ? Money.ofCents(5000 + s * 100L) : null)
+                        .budgetLimit(s % 2 == 0 ? Money.ofCents(12000) : null)
+                        .build());
+            }
+            categories.add(category);
+
+            budgets.add(Budget.builder()
+                    .id(UUID.randomUUID())
+                    .userId(userId)
+                    .category(category)
+                    .limitAmount(Money.ofCents((500 + c * 25L) * 100))
+                    .warningThreshold(80)
+                    .period(Budget.BudgetPeriod.monthly)
+                    .build());
+        }
+
+        for (int i = 0; i < expenseCount; i++) {
+            Category category = categories.get(random.nextInt(categories.size()));
+            SubCategory subCategory = category.getSubCategories().isEmpty() ? null :
+                    category.getSubCategories().get(random.nextInt(category.getSubCategories().size()));
+            expenses.add(Expense.builder()
+                    .id(UUID.randomUUID())
+                    .userId(userId)
+                    .category(category)
+                    .subCategory(subCategory)
+                    .amount(Money.ofCents(random.nextInt(20000)))
+                    .description("Expense " + i)
+                    .expenseDate(referenceDate.withDayOfYear(1).plusDays(random.nextInt(365)))
+                    .build());
+        }
+    }
+
+    public List<Object[]> sumByCategory(LocalDate startDate, LocalDate endDate) {
+        Map<UUID, BigDecimal> totals = new HashMap<>();
+        for (Expense expense : expenses) {
+            if (inRange(expense, startDate, endDate)) {
+                totals.merge(expense.getCategory().getId(), expense.getAmount().toBigDecimal(), BigDecimal::add);
+            }
+        }
+        List<Object[]> rows = new ArrayList<>();
+        totals.forEach((id, total) -> rows.add(new Object[]{id, total}));
+        return rows;
+    }
+
+    public List<Object[]> sumBySubCategoryGrouped(LocalDate startDate, LocalDate endDate) {
+        Map<UUID, Object[]> rows = new HashMap<>();
+        for (Expense expense : expenses) {
+            if (expense.getSubCategory() == null || !inRange(expense, startDate, endDate)) {
+                continue;
+            }
+            Object[] row = rows.computeIfAbsent(expense.getSubCategory().getId(),
+                    id -> new Object[]{id, BigDecimal.ZERO, 0L, expense.getExpenseDate()});
+            row[1] = ((BigDecimal) row[1]).add(expense.getAmount().toBigDecimal());
+            row[2] = (Long) row[2] + 1;
+            if (expense.getExpenseDate().isAfter((LocalDate) row[3])) {
+                row[3] = expense.getExpenseDate();
+            }
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    // Rows of ExpenseRepository.findColumnsByUserId
+    public List<Object[]> columnRows() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Expense expense : expenses) {
+            rows.add(new Object[]{expense.getId(), expense.getExpenseDate(), expense.getAmount(),
+                    expense.getCategory().getId(), expense.getCategory().getIsActive(),
+                    expense.getSubCategory() != null ? expense.getSubCategory().getId() : null});
+        }
+        rows.sort(Comparator.comparing(row -> (LocalDate) row[1]));
+        return rows;
+    }
+
+    public BigDecimal sumByCategoryAndDateRange(UUID categoryId, LocalDate startDate, LocalDate endDate) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Expense expense : expenses) {
+            if (expense.getCategory().getId().equals(categoryId) && inRange(expense, startDate, endDate)) {
+                total = total.add(expense.getAmount().toBigDecimal());
+            }
+        }
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static boolean inRange(Expense expense, LocalDate startDate, LocalDate endDate) {
+        return !expense.getExpenseDate().isBefore(startDate) && !expense.getExpenseDate().isAfter(endDate);
+    }
+}
@@ -0,0 +1,41 @@
+package com.houseexpenses.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-256-bits-of-entropy-here";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(SECRET, 3600000, 86400000, 10000, new SimpleMeterRegistry());
+        UUID userId = UUID.randomUUID();
+        token = jwtTokenProvider.generateToken(userId);
+        refreshToken = jwtTokenProvider.generateRefreshToken(userId, UUID.randomUUID());
+    }
+
+    // The full signature check a token's first request pays; refresh tokens are never cached
+    @Benchmark
+    public JwtTokenProvider.RefreshToken verifySignature() {
+        return jwtTokenProvider.parseRefreshToken(refreshToken);
+    }
+
+    @Benchmark
+    public UUID resolveUserIdCached() {
+        return jwtTokenProvider.resolveUserId(token);
+    }
+}
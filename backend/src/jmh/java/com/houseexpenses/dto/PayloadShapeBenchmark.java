@@ -0,0 +1,60 @@
+package com.houseexpenses.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.houseexpenses.benchmark.HouseholdFixture;
+import com.houseexpenses.benchmark.RepositoryStubs;
+import com.houseexpenses.model.Expense;
+import com.houseexpenses.repository.ExpenseRepository;
+import com.houseexpenses.service.ExpenseService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a 100-row expense page as embedded DTOs versus the normalized shape.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadShapeBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ExpenseService expenseService;
+    private List<ExpenseDTO> expenses;
+
+    @Setup
+    public void setUp() throws Exception {
+        HouseholdFixture household = new HouseholdFixture(12, 6, 100);
+        PageImpl<Expense> page = new PageImpl<>(household.expenses, PageRequest.of(0, 100), household.expenses.size());
+        ExpenseRepository expenseRepository = RepositoryStubs.stub(ExpenseRepository.class, Map.of(
+                "findByFilters", args -> page));
+
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        expenseService = new ExpenseService(expenseRepository, null, null, null, null, null, null);
+        expenses = expenseService.getExpenses(household.userId, null, null, null, null, PageRequest.of(0, 100))
+                .getContent();
+
+        System.out.printf("%nembedded: %d bytes, normalized: %d bytes%n", embedded().length, normalized().length);
+    }
+
+    @Benchmark
+    public byte[] embedded() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(expenses));
+    }
+
+    @Benchmark
+    public byte[] normalized() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(expenseService.normalize(expenses)));
+    }
+}
@@ -0,0 +1,91 @@
+package com.houseexpenses.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The money arithmetic of budget checks and dashboard totals on Money, against the BigDecimal
+ * chains it replaced. Both sides produce the same values; run with -prof gc for allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int THRESHOLD = 80;
+
+    private Money[] amounts;
+    private BigDecimal[] decimals;
+    private Money limit;
+    private BigDecimal decimalLimit;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        amounts = new Money[2000];
+        decimals = new BigDecimal[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            long cents = random.nextInt(20000);
+            amounts[i] = Money.ofCents(cents);
+            decimals[i] = BigDecimal.valueOf(cents, 2);
+        }
+        limit = Money.ofCents(750_00);
+        decimalLimit = limit.toBigDecimal();
+    }
+
+    @Benchmark
+    public int budgetStatusMoney() {
+        int statuses = 0;
+        for (Money spending : amounts) {
+            long utilization = limit.isPositive() ? spending.basisPointsOf(limit) : 0;
+            if (utilization >= Money.HUNDRED_PERCENT) {
+                statuses += 2;
+            } else if (utilization >= THRESHOLD * 100L) {
+                statuses++;
+            }
+        }
+        return statuses;
+    }
+
+    @Benchmark
+    public int budgetStatusBigDecimal() {
+        int statuses = 0;
+        for (BigDecimal spending : decimals) {
+            BigDecimal utilization = BigDecimal.ZERO;
+            if (decimalLimit.compareTo(BigDecimal.ZERO) > 0) {
+                utilization = spending.multiply(BigDecimal.valueOf(100)).divide(decimalLimit, 2, RoundingMode.HALF_UP);
+            }
+            if (utilization.compareTo(BigDecimal.valueOf(100)) >= 0) {
+                statuses += 2;
+            } else if (utilization.compareTo(BigDecimal.valueOf(THRESHOLD)) >= 0) {
+                statuses++;
+            }
+        }
+        return statuses;
+    }
+
+    @Benchmark
+    public Money totalAndAverageMoney() {
+        long totalCents = 0;
+        for (Money amount : amounts) {
+            totalCents += amount.cents();
+        }
+        return Money.ofCents(totalCents).dividedBy(amounts.length);
+    }
+
+    @Benchmark
+    public BigDecimal totalAndAverageBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimals) {
+            total = total.add(amount);
+        }
+        return total.divide(BigDecimal.valueOf(decimals.length), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,150 @@
+package com.houseexpenses.model;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reference-data lookups through a Hibernate session factory configured like the application's,
+ * with the second-level and query caches on and off. Every operation opens a new session, so
+ * the persistence context never answers on its own. The database is an in-memory H2 reached
+ * without a network hop, so the uncached figures are a lower bound for PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final int CATEGORIES = 12;
+    private static final int SUBCATEGORIES_PER_CATEGORY = 6;
+
+    @Param({"true", "false"})
+    private boolean cached;
+
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private UUID userId;
+    private final List<UUID> categoryIds = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Without a logback configuration the root logger is at DEBUG, which logs every statement
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:l2-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(4);
+
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(AvailableSettings.DATASOURCE, dataSource);
+        settings.put(AvailableSettings.HBM2DDL_AUTO, "create");
+        settings.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, cached);
+        settings.put(AvailableSettings.USE_QUERY_CACHE, cached);
+        settings.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        settings.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+        settings.put("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+        settings.put("hibernate.javax.cache.uri", "hibernate-cache.conf");
+        settings.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder().applySettings(settings).build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(SubCategory.class)
+                .addAnnotatedClass(Budget.class)
+                .buildMetadata()
+                .buildSessionFactory();
+
+        userId = UUID.randomUUID();
+        sessionFactory.inTransaction(session -> {
+            for (int c = 0; c < CATEGORIES; c++) {
+                Category category = Category.builder()
+                        .userId(userId)
+                        .name("Category " + c)
+                        .icon("home")
+                        .color("#3498DB")
+                        .expenseType(Category.ExpenseType.monthly)
+                        .displayOrder(c)
+                        .build();
+                for (int s = 0; s < SUBCATEGORIES_PER_CATEGORY; s++) {
+                    category.getSubCategories().add(SubCategory.builder()
+                            .category(category)
+                            .name("Sub " + c + "." + s)
+                            .icon("cart")
+                            .displayOrder(s)
+                            .budgetLimit(Money.ofCents(12000))
+                            .build());
+                }
+                session.persist(category);
+                session.persist(Budget.builder()
+                        .userId(userId)
+                        .category(category)
+                        .subCategory(category.getSubCategories().get(0))
+                        .limitAmount(Money.ofCents(50000))
+                        .period(Budget.BudgetPeriod.monthly)
+                        .build());
+                categoryIds.add(category.getId());
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        dataSource.close();
+    }
+
+    // The category lookup the expense and budget writes make before saving
+    @Benchmark
+    public Category findCategory() {
+        UUID categoryId = categoryIds.get(next++ % categoryIds.size());
+        try (Session session = sessionFactory.openSession()) {
+            return session.find(Category.class, categoryId);
+        }
+    }
+
+    // CategoryRepository.findByUserIdWithSubCategories
+    @Benchmark
+    public int categoriesWithSubCategories() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("SELECT c FROM Category c LEFT JOIN FETCH c.subCategories "
+                            + "WHERE c.userId = :userId AND c.isActive = true ORDER BY c.displayOrder", Category.class)
+                    .setParameter("userId", userId)
+                    .setCacheable(cached)
+                    .setCacheRegion("category-queries")
+                    .getResultList()
+                    .size();
+        }
+    }
+
+    // BudgetRepository.findByUserIdWithDetails
+    @Benchmark
+    public int budgetsWithDetails() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("SELECT b FROM Budget b LEFT JOIN FETCH b.category "
+                            + "LEFT JOIN FETCH b.subCategory WHERE b.userId = :userId", Budget.class)
+                    .setParameter("userId", userId)
+                    .setCacheable(cached)
+                    .setCacheRegion("budget-queries")
+                    .getResultList()
+                    .size();
+        }
+    }
+}
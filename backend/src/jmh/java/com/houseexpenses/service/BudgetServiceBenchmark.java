@@ -0,0 +1,67 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.benchmark.HouseholdFixture;
+import com.houseexpenses.benchmark.RepositoryStubs;
+import com.houseexpenses.dto.BudgetStatusDTO;
+import com.houseexpenses.model.Budget;
+import com.houseexpenses.model.Budget.BudgetPeriod;
+import com.houseexpenses.repository.ExpenseRepository;
+import com.houseexpenses.util.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BudgetServiceBenchmark {
+
+    private HouseholdFixture household;
+    private BudgetService budgetService;
+    private BudgetService indexedBudgetService;
+    private Budget budget;
+
+    @Setup
+    public void setUp() {
+        household = new HouseholdFixture(12, 6, 2000);
+        budget = household.budgets.get(0);
+        LocalDate[] monthRange = DateUtils.getDateRangeForPeriod(BudgetPeriod.monthly, household.referenceDate);
+
+        Map<UUID, BigDecimal> spendingByCategory = new HashMap<>();
+        for (Budget b : household.budgets) {
+            spendingByCategory.put(b.getCategory().getId(),
+                    household.sumByCategoryAndDateRange(b.getCategory().getId(), monthRange[0], monthRange[1]));
+        }
+
+        ExpenseRepository expenseRepository = RepositoryStubs.stub(ExpenseRepository.class, Map.of(
+                "sumByCategoryAndDateRange", args -> spendingByCategory.get((UUID) args[1]),
+                "findColumnsByUserId", args -> household.columnRows()));
+
+        // The store disabled answers from the stubbed query; enabled, from the user's range index
+        budgetService = new BudgetService(null, null, null, new ExpenseColumnStore(expenseRepository, null,
+                new ExpenseSegmentFiles(""), new SimpleMeterRegistry(), false, 0, 0), null);
+        ExpenseColumnStore store = new ExpenseColumnStore(expenseRepository, null,
+                new ExpenseSegmentFiles(""), new SimpleMeterRegistry(), true, Long.MAX_VALUE, Long.MAX_VALUE);
+        store.get(household.userId);
+        indexedBudgetService = new BudgetService(null, null, null, store, null);
+    }
+
+    @Benchmark
+    public BudgetStatusDTO calculateBudgetStatus() {
+        return budgetService.calculateBudgetStatus(household.userId, budget, household.referenceDate);
+    }
+
+    @Benchmark
+    public BudgetStatusDTO calculateBudgetStatusIndexed() {
+        return indexedBudgetService.calculateBudgetStatus(household.userId, budget, household.referenceDate);
+    }
+}
@@ -0,0 +1,66 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.benchmark.HouseholdFixture;
+import com.houseexpenses.benchmark.RepositoryStubs;
+import com.houseexpenses.dto.CategorySpendingDTO;
+import com.houseexpenses.dto.PendingExpenseDTO;
+import com.houseexpenses.model.Budget.BudgetPeriod;
+import com.houseexpenses.repository.BudgetRepository;
+import com.houseexpenses.repository.CategoryRepository;
+import com.houseexpenses.repository.ExpenseRepository;
+import com.houseexpenses.util.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardServiceBenchmark {
+
+    private HouseholdFixture household;
+    private DashboardService dashboardService;
+    private LocalDate[] monthRange;
+
+    @Setup
+    public void setUp() {
+        household = new HouseholdFixture(12, 6, 2000);
+        monthRange = DateUtils.getDateRangeForPeriod(BudgetPeriod.monthly, household.referenceDate);
+        LocalDate[] yearRange = DateUtils.getDateRangeForPeriod(BudgetPeriod.annual, household.referenceDate);
+
+        List<Object[]> categoryTotals = household.sumByCategory(monthRange[0], monthRange[1]);
+        List<Object[]> monthlyPayments = household.sumBySubCategoryGrouped(monthRange[0], monthRange[1]);
+        List<Object[]> annualPayments = household.sumBySubCategoryGrouped(yearRange[0], yearRange[1]);
+
+        ExpenseRepository expenseRepository = RepositoryStubs.stub(ExpenseRepository.class, Map.of(
+                "sumByCategory", args -> categoryTotals,
+                "sumBySubCategoryGrouped", args -> args[1].equals(monthRange[0]) ? monthlyPayments : annualPayments));
+        CategoryRepository categoryRepository = RepositoryStubs.stub(CategoryRepository.class, Map.of(
+                "findByUserIdAndIsActiveTrueOrderByDisplayOrder", args -> household.categories,
+                "findByUserIdWithSubCategories", args -> household.categories));
+        BudgetRepository budgetRepository = RepositoryStubs.stub(BudgetRepository.class, Map.of(
+                "findByUserIdAndPeriod", args -> household.budgets));
+
+        dashboardService = new DashboardService(expenseRepository, categoryRepository, budgetRepository, null, null,
+                new PeriodSnapshotService(null, null, null, null, null, false, true, 0),
+                new ExpenseColumnStore(expenseRepository, null,
+                        new ExpenseSegmentFiles(""), new SimpleMeterRegistry(), false, 0, 0));
+    }
+
+    @Benchmark
+    public List<CategorySpendingDTO> topCategoriesSpending() {
+        return dashboardService.getTopCategoriesSpending(household.userId, monthRange[0], monthRange[1], 5);
+    }
+
+    @Benchmark
+    public List<PendingExpenseDTO> computePendingExpenses() {
+        return dashboardService.computePendingExpenses(household.userId, household.referenceDate);
+    }
+}
@@ -0,0 +1,83 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.benchmark.HouseholdFixture;
+import com.houseexpenses.model.Budget.BudgetPeriod;
+import com.houseexpenses.model.Money;
+import com.houseexpenses.model.PeriodSnapshot.Totals;
+import com.houseexpenses.util.DateUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard aggregations over the in-memory columns, against the same grouping done over
+ * boxed BigDecimal amounts, the way SQL aggregates arrive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseColumnsBenchmark {
+
+    private HouseholdFixture household;
+    private ExpenseColumns columns;
+    private LocalDate[] monthRange;
+    private LocalDate[] yearRange;
+    private UUID categoryId;
+
+    @Setup
+    public void setUp() {
+        household = new HouseholdFixture(12, 6, 2000);
+        columns = ExpenseColumns.of(household.columnRows());
+        monthRange = DateUtils.getDateRangeForPeriod(BudgetPeriod.monthly, household.referenceDate);
+        yearRange = DateUtils.getDateRangeForPeriod(BudgetPeriod.annual, household.referenceDate);
+        categoryId = household.categories.get(0).getId();
+        columns.indexed();
+    }
+
+    @Benchmark
+    public Totals columnsMonth() {
+        return columns.totals(BudgetPeriod.monthly, monthRange[0], monthRange[1]);
+    }
+
+    @Benchmark
+    public Totals columnsYear() {
+        return columns.totals(BudgetPeriod.annual, yearRange[0], yearRange[1]);
+    }
+
+    @Benchmark
+    public Money indexedLast37Days() {
+        return columns.sumByCategory(categoryId, household.referenceDate.minusDays(36), household.referenceDate);
+    }
+
+    @Benchmark
+    public BigDecimal boxedLast37Days() {
+        return household.sumByCategoryAndDateRange(categoryId, household.referenceDate.minusDays(36),
+                household.referenceDate);
+    }
+
+    @Benchmark
+    public Object[] boxedMonth() {
+        return new Object[]{
+                household.sumByCategory(monthRange[0], monthRange[1]),
+                household.sumBySubCategoryGrouped(monthRange[0], monthRange[1])};
+    }
+
+    @Benchmark
+    public Object[] boxedYear() {
+        return new Object[]{
+                household.sumByCategory(yearRange[0], yearRange[1]),
+                household.sumBySubCategoryGrouped(yearRange[0], yearRange[1])};
+    }
+
+    @Benchmark
+    public ExpenseColumns applyChange() {
+        return columns.withExpense(UUID.randomUUID(), household.referenceDate, household.expenses.get(0).getAmount(),
+                household.categories.get(0).getId(), true, null);
+    }
+}
@@ -0,0 +1,68 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.benchmark.HouseholdFixture;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Warming one user after a restart: mapping their segment back in, against building the
+ * columns from the rows the database query returns (the query itself is not included).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseSegmentBenchmark {
+
+    private final UUID userId = UUID.randomUUID();
+    private Path directory;
+    private ExpenseSegmentFiles segmentFiles;
+    private List<Object[]> rows;
+    private ExpenseColumns columns;
+
+    @Setup
+    public void setUp() throws IOException {
+        rows = new HouseholdFixture(12, 6, 2000).columnRows();
+        columns = ExpenseColumns.of(rows);
+        directory = Files.createTempDirectory("expense-segments");
+        segmentFiles = new ExpenseSegmentFiles(directory.toString());
+        segmentFiles.write(userId, columns, Instant.now());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public ExpenseSegmentFiles.Segment readSegment() {
+        return segmentFiles.read(userId);
+    }
+
+    @Benchmark
+    public ExpenseColumns buildFromRows() {
+        return ExpenseColumns.of(rows);
+    }
+
+    @Benchmark
+    public Instant writeSegment() throws IOException {
+        Instant watermark = Instant.now();
+        segmentFiles.write(userId, columns, watermark);
+        return watermark;
+    }
+}
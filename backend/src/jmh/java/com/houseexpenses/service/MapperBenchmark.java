@@ -0,0 +1,60 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.benchmark.HouseholdFixture;
+import com.houseexpenses.benchmark.RepositoryStubs;
+import com.houseexpenses.dto.CategoryDTO;
+import com.houseexpenses.dto.ExpenseDTO;
+import com.houseexpenses.model.Expense;
+import com.houseexpenses.repository.CategoryRepository;
+import com.houseexpenses.repository.ExpenseRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping for a 100-row expense page and a full category tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private HouseholdFixture household;
+    private ExpenseService expenseService;
+    private CategoryService categoryService;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        household = new HouseholdFixture(12, 6, 100);
+        pageable = PageRequest.of(0, 100);
+        Page<Expense> page = new PageImpl<>(household.expenses, pageable, household.expenses.size());
+
+        ExpenseRepository expenseRepository = RepositoryStubs.stub(ExpenseRepository.class, Map.of(
+                "findByFilters", args -> page));
+        CategoryRepository categoryRepository = RepositoryStubs.stub(CategoryRepository.class, Map.of(
+                "findByUserIdWithSubCategories", args -> household.categories));
+
+        expenseService = new ExpenseService(expenseRepository, categoryRepository, null, null, null, null, null);
+        categoryService = new CategoryService(categoryRepository, null, null, null, null);
+    }
+
+    @Benchmark
+    public Page<ExpenseDTO> expensePage() {
+        return expenseService.getExpenses(household.userId, null, null, null, null, pageable);
+    }
+
+    @Benchmark
+    public List<CategoryDTO> categoryTree() {
+        return categoryService.getAllCategories(household.userId);
+    }
+}
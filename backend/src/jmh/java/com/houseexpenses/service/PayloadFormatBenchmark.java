@@ -0,0 +1,117 @@
+package com.houseexpenses.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.houseexpenses.benchmark.HouseholdFixture;
+import com.houseexpenses.benchmark.RepositoryStubs;
+import com.houseexpenses.dto.ApiResponse;
+import com.houseexpenses.dto.DashboardDTO;
+import com.houseexpenses.dto.ExpenseDTO;
+import com.houseexpenses.model.Budget.BudgetPeriod;
+import com.houseexpenses.model.Expense;
+import com.houseexpenses.model.Money;
+import com.houseexpenses.repository.BudgetRepository;
+import com.houseexpenses.repository.CategoryRepository;
+import com.houseexpenses.repository.ExpenseRepository;
+import com.houseexpenses.util.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side serialization of the /v1/expenses page and /v1/dashboard/summary payloads in
+ * each negotiable format. Payload sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<ExpenseDTO>> expensePage;
+    private ApiResponse<DashboardDTO> summary;
+
+    @Setup
+    public void setUp() throws Exception {
+        HouseholdFixture household = new HouseholdFixture(12, 6, 100);
+        LocalDate[] monthRange = DateUtils.getDateRangeForPeriod(BudgetPeriod.monthly, household.referenceDate);
+        LocalDate[] yearRange = DateUtils.getDateRangeForPeriod(BudgetPeriod.annual, household.referenceDate);
+
+        PageImpl<Expense> page = new PageImpl<>(household.expenses, PageRequest.of(0, 100), household.expenses.size());
+        List<Object[]> categoryTotals = household.sumByCategory(monthRange[0], monthRange[1]);
+        List<Object[]> monthlyPayments = household.sumBySubCategoryGrouped(monthRange[0], monthRange[1]);
+        List<Object[]> annualPayments = household.sumBySubCategoryGrouped(yearRange[0], yearRange[1]);
+
+        ExpenseRepository expenseRepository = RepositoryStubs.stub(ExpenseRepository.class, Map.of(
+                "findByFilters", args -> page,
+                "sumByCategory", args -> categoryTotals,
+                "sumBySubCategoryGrouped", args -> args[1].equals(monthRange[0]) ? monthlyPayments : annualPayments));
+        CategoryRepository categoryRepository = RepositoryStubs.stub(CategoryRepository.class, Map.of(
+                "findByUserIdAndIsActiveTrueOrderByDisplayOrder", args -> household.categories,
+                "findByUserIdWithSubCategories", args -> household.categories));
+        BudgetRepository budgetRepository = RepositoryStubs.stub(BudgetRepository.class, Map.of(
+                "findByUserIdAndPeriod", args -> household.budgets));
+
+        ExpenseService expenseService = new ExpenseService(expenseRepository, null, null, null, null, null, null);
+        DashboardService dashboardService = new DashboardService(
+                expenseRepository, categoryRepository, budgetRepository, null, null,
+                new PeriodSnapshotService(null, null, null, null, null, false, true, 0),
+                new ExpenseColumnStore(expenseRepository, null,
+                        new ExpenseSegmentFiles(""), new SimpleMeterRegistry(), false, 0, 0));
+
+        List<ExpenseDTO> expenses = expenseService.getExpenses(
+                household.userId, null, null, null, null, PageRequest.of(0, 100)).getContent();
+        expensePage = ApiResponse.success(expenses);
+        summary = ApiResponse.success(DashboardDTO.builder()
+                .totalSpending(Money.of(categoryTotals.stream().map(row -> (BigDecimal) row[1])
+                        .reduce(BigDecimal.ZERO, BigDecimal::add)))
+                .budgetLimit(Money.ofCents(250000))
+                .utilizationPercentage(BigDecimal.valueOf(64.25))
+                .topCategories(dashboardService.getTopCategoriesSpending(household.userId, monthRange[0], monthRange[1], 5))
+                .recentExpenses(expenses)
+                .alerts(List.of())
+                .unreadAlertCount(0)
+                .pendingExpenses(dashboardService.computePendingExpenses(household.userId, household.referenceDate))
+                .build());
+
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .factory(factory)
+                .build();
+
+        System.out.printf("%n%s: expenses %d bytes, summary %d bytes%n",
+                format, expensePage().length, dashboardSummary().length);
+    }
+
+    @Benchmark
+    public byte[] expensePage() throws Exception {
+        return objectMapper.writeValueAsBytes(expensePage);
+    }
+
+    @Benchmark
+    public byte[] dashboardSummary() throws Exception {
+        return objectMapper.writeValueAsBytes(summary);
+    }
+}
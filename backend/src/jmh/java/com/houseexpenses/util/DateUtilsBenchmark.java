@@ -0,0 +1,31 @@
+package com.houseexpenses.util;
+
+import com.houseexpenses.model.Budget.BudgetPeriod;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilsBenchmark {
+
+    @Param({"weekly", "monthly", "annual"})
+    private BudgetPeriod period;
+
+    private final LocalDate referenceDate = LocalDate.of(2024, 6, 15);
+
+    @Benchmark
+    public LocalDate[] dateRangeForPeriod() {
+        return DateUtils.getDateRangeForPeriod(period, referenceDate);
+    }
+
+    @Benchmark
+    public int daysRemaining() {
+        return DateUtils.getDaysRemaining(period, referenceDate);
+    }
+}
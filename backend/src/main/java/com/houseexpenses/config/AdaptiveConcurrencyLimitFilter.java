@@ -0,0 +1,261 @@
+package com.houseexpenses.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houseexpenses.dto.ApiResponse;
+import com.houseexpenses.util.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sheds load before requests reach the Hikari pool. The in-flight limit follows a windowed
+ * latency gradient: once a window has enough samples, its 90th percentile latency is compared
+ * with the target. Over the target, the limit shrinks in proportion, by at most the backoff
+ * ratio per window; under it, the limit grows by its square root while the limit is actually in
+ * use. Single slow requests only move the percentile, and the hot path takes no lock. Requests
+ * over the limit, or over a single user's share of it, fail immediately with 503 instead of
+ * queueing for a connection.
+ *
+ * Runs after the security filter chain so the authenticated user is known.
+ */
+@Component
+@ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class AdaptiveConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final double PERCENTILE = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final double perUserShare;
+    private final int perUserMin;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<UUID, AtomicInteger> inFlightByUser = new ConcurrentHashMap<>();
+    private final AtomicReference<LatencyWindow> window;
+    // Only written by the thread that closes a window
+    private volatile double limit;
+
+    private final Counter rejectedGlobal;
+    private final Counter rejectedUser;
+
+    public AdaptiveConcurrencyLimitFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${app.concurrency.requests-per-connection:4}") int requestsPerConnection,
+            @Value("${app.concurrency.max-limit:200}") int maxLimit,
+            @Value("${app.concurrency.target-latency:500}") long targetLatencyMs,
+            @Value("${app.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${app.concurrency.per-user-share:0.5}") double perUserShare,
+            @Value("${app.concurrency.per-user-min:8}") int perUserMin,
+            @Value("${app.concurrency.window:1000}") long windowMs,
+            @Value("${app.concurrency.min-window-samples:20}") int minWindowSamples,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        // A user's parallel launch calls must fit even at the floor
+        this.minLimit = Math.max(maximumPoolSize, perUserMin);
+        this.maxLimit = Math.max(maxLimit, minLimit);
+        this.limit = Math.max(minLimit, Math.min(maximumPoolSize * requestsPerConnection, this.maxLimit));
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.backoffRatio = backoffRatio;
+        this.perUserShare = perUserShare;
+        this.perUserMin = perUserMin;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.minWindowSamples = minWindowSamples;
+        this.objectMapper = objectMapper;
+        this.window = new AtomicReference<>(new LatencyWindow(System.nanoTime()));
+
+        Gauge.builder("concurrency.limit", this, f -> f.limit).register(meterRegistry);
+        Gauge.builder("concurrency.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("concurrency.users", inFlightByUser, Map::size).register(meterRegistry);
+        this.rejectedGlobal = meterRegistry.counter("concurrency.rejected", "reason", "limit");
+        this.rejectedUser = meterRegistry.counter("concurrency.rejected", "reason", "user");
+        log.info("Adaptive concurrency limit starting at {} (min {}, max {}, per user at least {})",
+                (int) limit, minLimit, this.maxLimit, perUserMin);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health checks and scrapes must keep answering while the API sheds load
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        int currentLimit = (int) limit;
+        if (!tryAcquireGlobal(currentLimit)) {
+            rejectedGlobal.increment();
+            reject(request, response);
+            return;
+        }
+
+        UUID userId = SecurityUtils.currentUserId();
+        AtomicInteger userInFlight = null;
+        if (userId != null) {
+            userInFlight = inFlightByUser.computeIfAbsent(userId, id -> new AtomicInteger());
+            int userLimit = Math.max(perUserMin, (int) Math.ceil(currentLimit * perUserShare));
+            if (userInFlight.incrementAndGet() > userLimit) {
+                releaseUser(userId, userInFlight);
+                inFlight.decrementAndGet();
+                rejectedUser.increment();
+                reject(request, response);
+                return;
+            }
+        }
+
+        long start = System.nanoTime();
+        int inFlightAtStart = inFlight.get();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            onSample(System.nanoTime() - start, inFlightAtStart);
+            if (userInFlight != null) {
+                releaseUser(userId, userInFlight);
+            }
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private boolean tryAcquireGlobal(int currentLimit) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void releaseUser(UUID userId, AtomicInteger userInFlight) {
+        if (userInFlight.decrementAndGet() == 0) {
+            inFlightByUser.remove(userId, userInFlight);
+        }
+    }
+
+    private void onSample(long latencyNanos, int inFlightAtStart) {
+        LatencyWindow current = window.get();
+        current.record(latencyNanos, inFlightAtStart);
+        long now = System.nanoTime();
+        if (now - current.startNanos >= windowNanos && current.samples() >= minWindowSamples
+                && window.compareAndSet(current, new LatencyWindow(now))) {
+            adjust(current);
+        }
+    }
+
+    private void adjust(LatencyWindow closed) {
+        long latency = closed.percentile(PERCENTILE);
+        double current = limit;
+        if (latency > targetLatencyNanos) {
+            double gradient = Math.max(backoffRatio, (double) targetLatencyNanos / latency);
+            limit = Math.max(minLimit, current * gradient);
+        } else if (closed.peakInFlight() * 2 >= current) {
+            // Only grow when the limit is actually being used, otherwise it drifts upward at idle
+            limit = Math.min(maxLimit, current + Math.sqrt(current));
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("Rejected {} {} - concurrency limit reached", request.getMethod(), request.getRequestURI());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("SERVICE_BUSY", "Server is busy, please retry shortly"));
+    }
+
+    /**
+     * Latencies recorded since startNanos, in buckets a quarter of a power of two wide, so
+     * percentiles are within 25% without keeping the samples.
+     */
+    private static final class LatencyWindow {
+
+        private static final int BUCKETS = 160;
+
+        final long startNanos;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder samples = new LongAdder();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+
+        LatencyWindow(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void record(long latencyNanos, int inFlight) {
+            counts.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+            samples.increment();
+            peakInFlight.accumulateAndGet(inFlight, Math::max);
+        }
+
+        long samples() {
+            return samples.sum();
+        }
+
+        int peakInFlight() {
+            return peakInFlight.get();
+        }
+
+        // Upper bound of the bucket holding the given percentile, in nanoseconds
+        long percentile(double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += counts.get(i);
+            }
+            long rank = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return TimeUnit.MICROSECONDS.toNanos(upperBound(i));
+                }
+            }
+            return TimeUnit.MICROSECONDS.toNanos(upperBound(BUCKETS - 1));
+        }
+
+        private static int bucket(long micros) {
+            if (micros < 4) {
+                return (int) Math.max(0, micros);
+            }
+            int log = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) (micros >>> (log - 2)) & 3;
+            return Math.min(BUCKETS - 1, log * 4 + sub - 4);
+        }
+
+        private static long upperBound(int bucket) {
+            if (bucket < 4) {
+                return bucket + 1;
+            }
+            int log = (bucket + 4) / 4;
+            int sub = (bucket + 4) % 4;
+            return (5L + sub) << (log - 2);
+        }
+    }
+}
@@ -1,14 +1,45 @@
 package com.houseexpenses.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 @Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
 public class AppConfig {
 
     @Bean
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
+
+    // Picked up by the auto-configured applicationTaskExecutor
+    @Bean
+    public TaskDecorator requestContextTaskDecorator() {
+        return new RequestContextTaskDecorator();
+    }
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> bootstrapEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/v1/bootstrap");
+        return registration;
+    }
+
+    // Registered after the security chain so the authenticated user is known
+    @Bean
+    public FilterRegistrationBean<ResponseBodyCacheFilter> responseBodyCacheFilter(
+            ResponseCacheProperties properties, UserDataVersions userDataVersions, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ResponseBodyCacheFilter> registration = new FilterRegistrationBean<>(
+                new ResponseBodyCacheFilter(properties, userDataVersions, meterRegistry));
+        registration.addUrlPatterns("/v1/categories", "/v1/budgets", "/v1/budgets/status", "/v1/dashboard/*");
+        registration.setEnabled(properties.isEnabled());
+        return registration;
+    }
 }
@@ -0,0 +1,20 @@
+package com.houseexpenses.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Assigns a controller or handler method to a bulkhead. Each bulkhead has its own
+ * concurrency limit and its own partition of the connection pool; unannotated
+ * handlers run in the general bulkhead.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    Type value();
+
+    enum Type {
+        general, analytics, transactional, auth
+    }
+}
@@ -0,0 +1,23 @@
+package com.houseexpenses.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "app.bulkheads.enabled", havingValue = "true")
+@EnableConfigurationProperties(BulkheadProperties.class)
+@RequiredArgsConstructor
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadInterceptor bulkheadInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // A batch does no work itself; each of its sub-requests takes its own permit
+        registry.addInterceptor(bulkheadInterceptor).excludePathPatterns("/v1/batch");
+    }
+}
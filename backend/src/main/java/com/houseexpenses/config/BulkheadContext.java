@@ -0,0 +1,26 @@
+package com.houseexpenses.config;
+
+/**
+ * Bulkhead of the work running on the current thread, read when a connection is borrowed.
+ */
+public final class BulkheadContext {
+
+    private static final ThreadLocal<Bulkhead.Type> CURRENT = new ThreadLocal<>();
+
+    private BulkheadContext() {
+        // Utility class
+    }
+
+    public static Bulkhead.Type current() {
+        Bulkhead.Type type = CURRENT.get();
+        return type != null ? type : Bulkhead.Type.general;
+    }
+
+    public static void set(Bulkhead.Type type) {
+        CURRENT.set(type);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
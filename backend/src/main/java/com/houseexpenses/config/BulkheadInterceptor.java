@@ -0,0 +1,101 @@
+package com.houseexpenses.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houseexpenses.dto.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Admits requests into the bulkhead declared by {@link Bulkhead} and binds it to the
+ * request thread so that connections come from the matching pool partition.
+ */
+@Component
+@ConditionalOnProperty(name = "app.bulkheads.enabled", havingValue = "true")
+@Slf4j
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final String BULKHEAD_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".bulkhead";
+
+    private final ObjectMapper objectMapper;
+    private final Map<Bulkhead.Type, Semaphore> permits = new EnumMap<>(Bulkhead.Type.class);
+    private final Map<Bulkhead.Type, Counter> rejections = new EnumMap<>(Bulkhead.Type.class);
+    private final Map<Method, Bulkhead.Type> handlerTypes = new ConcurrentHashMap<>();
+
+    public BulkheadInterceptor(BulkheadProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        for (Bulkhead.Type type : Bulkhead.Type.values()) {
+            int maxConcurrent = properties.partition(type).getMaxConcurrent();
+            Semaphore semaphore = new Semaphore(maxConcurrent);
+            permits.put(type, semaphore);
+            rejections.put(type, meterRegistry.counter("bulkhead.rejected", "bulkhead", type.name()));
+            Gauge.builder("bulkhead.inflight", semaphore, s -> maxConcurrent - s.availablePermits())
+                    .tag("bulkhead", type.name())
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.saturation", semaphore, s -> 1.0 - (double) s.availablePermits() / maxConcurrent)
+                    .tag("bulkhead", type.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        Bulkhead.Type type = handlerTypes.computeIfAbsent(handlerMethod.getMethod(), m -> resolve(handlerMethod));
+        if (!permits.get(type).tryAcquire()) {
+            rejections.get(type).increment();
+            log.debug("Rejected {} {} - {} bulkhead full", request.getMethod(), request.getRequestURI(), type);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("SERVICE_BUSY", "Server is busy, please retry shortly"));
+            return false;
+        }
+
+        request.setAttribute(BULKHEAD_ATTRIBUTE, type);
+        BulkheadContext.set(type);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object type = request.getAttribute(BULKHEAD_ATTRIBUTE);
+        if (type != null) {
+            request.removeAttribute(BULKHEAD_ATTRIBUTE);
+            permits.get((Bulkhead.Type) type).release();
+        }
+        BulkheadContext.clear();
+    }
+
+    private Bulkhead.Type resolve(HandlerMethod handlerMethod) {
+        Bulkhead bulkhead = handlerMethod.getMethodAnnotation(Bulkhead.class);
+        if (bulkhead == null) {
+            bulkhead = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), Bulkhead.class);
+        }
+        return bulkhead != null ? bulkhead.value() : Bulkhead.Type.general;
+    }
+}
@@ -0,0 +1,34 @@
+package com.houseexpenses.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.bulkheads")
+public class BulkheadProperties {
+
+    private boolean enabled;
+
+    private Map<Bulkhead.Type, Partition> partitions = new EnumMap<>(Map.of(
+            Bulkhead.Type.general, new Partition(2, 8),
+            Bulkhead.Type.analytics, new Partition(1, 4),
+            Bulkhead.Type.transactional, new Partition(1, 8),
+            Bulkhead.Type.auth, new Partition(1, 8)));
+
+    public Partition partition(Bulkhead.Type type) {
+        return partitions.get(type);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Partition {
+        private int poolSize;
+        private int maxConcurrent;
+    }
+}
@@ -0,0 +1,272 @@
+package com.houseexpenses.config;
+
+import com.houseexpenses.config.CacheInvalidationEvent.Topic;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Tells other instances whose cached data changed, over PostgreSQL LISTEN/NOTIFY.
+ * {@link #publish} sends a NOTIFY once the surrounding transaction commits; one LISTEN
+ * connection per instance turns notifications from other instances into
+ * {@link CacheInvalidationEvent}s. Notifications sent while the listener is disconnected
+ * are lost, so every (re)connect invalidates everything.
+ */
+@Component
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+@Slf4j
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    // Bumped when the payload format changes; instances flush everything on a version they don't know
+    private static final String VERSION = "2";
+    private static final String PING = "ping";
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final ResultSetExtractor<Void> IGNORE = rs -> null;
+    // Keeps a payload well under NOTIFY's 8000 bytes; longer lists are sent as "anything changed"
+    private static final int MAX_ENTITY_IDS = 100;
+
+    private final CacheInvalidationProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final HikariDataSource notifyPool;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection listenConnection;
+    private volatile long pingSentAt;
+    private Thread listener;
+
+    public CacheInvalidationBus(CacheInvalidationProperties properties, ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+
+        if (properties.isEnabled()) {
+            if (!CHANNEL.matcher(properties.getChannel()).matches()) {
+                throw new IllegalArgumentException("Invalid cache invalidation channel: " + properties.getChannel());
+            }
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(properties.getUrl());
+            config.setUsername(properties.getUsername());
+            config.setPassword(properties.getPassword());
+            config.setPoolName("cache-invalidation-notify");
+            config.setMaximumPoolSize(2);
+            config.setConnectionTimeout(2000);
+            config.setInitializationFailTimeout(-1);
+            this.notifyPool = new HikariDataSource(config);
+            this.jdbcTemplate = new JdbcTemplate(notifyPool);
+        } else {
+            this.notifyPool = null;
+            this.jdbcTemplate = null;
+        }
+
+        Gauge.builder("cache.invalidation.connected", this, bus -> bus.connected ? 1 : 0).register(meterRegistry);
+    }
+
+    public void publish(Topic topic, UUID userId) {
+        publish(topic, userId, List.of());
+    }
+
+    /**
+     * Also names the rows that changed, so other instances can evict them by id.
+     */
+    public void publish(Topic topic, UUID userId, Collection<UUID> entityIds) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String ids = entityIds.size() > MAX_ENTITY_IDS ? "" : entityIds.stream()
+                .map(UUID::toString)
+                .collect(Collectors.joining(","));
+        String payload = String.join(":", VERSION, instanceId, topic.name(), userId.toString(), ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(payload);
+                }
+            });
+        } else {
+            send(payload);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly(listenConnection);
+        if (listener != null) {
+            listener.interrupt();
+            try {
+                listener.join(properties.getReconnectDelay());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (notifyPool != null) {
+            notifyPool.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        int failures = 0;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    properties.getUrl(), properties.getUsername(), properties.getPassword())) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+                connected = true;
+                failures = 0;
+                log.info("Listening for cache invalidations on channel {}", properties.getChannel());
+                eventPublisher.publishEvent(CacheInvalidationEvent.all());
+                ping();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                    checkPing();
+                }
+            } catch (SQLException ex) {
+                if (running && failures++ == 0) {
+                    log.warn("Cache invalidation listener has no connection, retrying every {} ms: {}",
+                            properties.getReconnectDelay(), ex.getMessage());
+                } else {
+                    log.debug("Cache invalidation listener reconnect failed: {}", ex.getMessage());
+                }
+            } finally {
+                connected = false;
+                listenConnection = null;
+            }
+            pause();
+        }
+    }
+
+    private void handle(String payload) {
+        String[] parts = payload.split(":", 5);
+        if (parts.length != 5 || !VERSION.equals(parts[0])) {
+            log.warn("Unknown cache invalidation payload version, invalidating everything: {}", payload);
+            eventPublisher.publishEvent(CacheInvalidationEvent.all());
+            return;
+        }
+        if (PING.equals(parts[2])) {
+            if (instanceId.equals(parts[1])) {
+                pingSentAt = 0;
+            }
+            return;
+        }
+        if (instanceId.equals(parts[1])) {
+            // Local caches were already updated by the writer
+            return;
+        }
+
+        CacheInvalidationEvent event;
+        try {
+            List<UUID> entityIds = parts[4].isEmpty() ? List.of()
+                    : Arrays.stream(parts[4].split(",")).map(UUID::fromString).toList();
+            event = new CacheInvalidationEvent(Topic.valueOf(parts[2]), UUID.fromString(parts[3]), entityIds);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Unknown cache invalidation {}, invalidating everything", payload);
+            event = CacheInvalidationEvent.all();
+        }
+        meterRegistry.counter("cache.invalidation.received",
+                "topic", event.topic() != null ? event.topic().name() : "all").increment();
+        eventPublisher.publishEvent(event);
+    }
+
+    private void ping() {
+        pingSentAt = System.currentTimeMillis();
+        send(String.join(":", VERSION, instanceId, PING, "", ""));
+    }
+
+    private void checkPing() {
+        long sentAt = pingSentAt;
+        if (sentAt > 0 && System.currentTimeMillis() - sentAt > properties.getPingTimeout()) {
+            pingSentAt = 0;
+            log.warn("This instance's own invalidation ping did not arrive within {} ms; LISTEN does not work "
+                    + "through a transaction pooler, point app.cache-invalidation.url at a direct connection",
+                    properties.getPingTimeout());
+        }
+    }
+
+    private void send(String payload) {
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", IGNORE, properties.getChannel(), payload);
+            meterRegistry.counter("cache.invalidation.sent", "result", "ok").increment();
+        } catch (DataAccessException ex) {
+            // Other instances catch up when their cache entries expire
+            meterRegistry.counter("cache.invalidation.sent", "result", "failed").increment();
+            log.warn("Could not send cache invalidation: {}", ex.getMessage());
+        }
+    }
+
+    private void pause() {
+        if (!running) {
+            return;
+        }
+        try {
+            Thread.sleep(properties.getReconnectDelay());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            log.debug("Error closing cache invalidation listener connection", ex);
+        }
+    }
+}
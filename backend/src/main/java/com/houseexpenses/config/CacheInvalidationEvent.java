@@ -0,0 +1,32 @@
+package com.houseexpenses.config;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published locally when another instance changed a user's data. A null topic means
+ * notifications may have been missed and every in-process cache should be dropped. Entity ids
+ * name the changed rows where the writer listed them, so caches keyed by id can drop just
+ * those; when empty, anything of the topic may have changed.
+ */
+public record CacheInvalidationEvent(Topic topic, UUID userId, List<UUID> entityIds) {
+
+    public enum Topic {
+        categories,
+        budgets,
+        alerts,
+        expenses
+    }
+
+    public CacheInvalidationEvent(Topic topic, UUID userId) {
+        this(topic, userId, List.of());
+    }
+
+    public static CacheInvalidationEvent all() {
+        return new CacheInvalidationEvent(null, null);
+    }
+
+    public boolean covers(Topic candidate) {
+        return topic == null || topic == candidate;
+    }
+}
@@ -0,0 +1,25 @@
+package com.houseexpenses.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.cache-invalidation")
+public class CacheInvalidationProperties {
+
+    private boolean enabled;
+
+    // Needs a direct or session-pooled connection; transaction poolers drop LISTEN registrations
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String channel = "cache_invalidation";
+
+    private long reconnectDelay = 5000;
+
+    // Milliseconds to wait for this instance's own startup ping before warning that LISTEN is not working
+    private long pingTimeout = 10000;
+}
@@ -0,0 +1,38 @@
+package com.houseexpenses.config;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Places users on shards so that adding a shard only moves roughly 1/N of new placements.
+ */
+public class ConsistentHashRing {
+
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<Integer> shardIds, int virtualNodes) {
+        if (shardIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        for (int shardId : shardIds) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(mix(((long) shardId << 32) | i), shardId);
+            }
+        }
+    }
+
+    public int shardFor(UUID userId) {
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(mix(userId.getMostSignificantBits() ^ userId.getLeastSignificantBits()));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    // SplitMix64 finalizer, spreads sequential virtual node ids evenly over the ring
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,153 @@
+package com.houseexpenses.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the application DataSource when bulkheads, the read replica or sharding are enabled.
+ * Each database node gets one Hikari pool per bulkhead (or a single pool without bulkheads),
+ * configured from spring.datasource.hikari apart from the size.
+ */
+@Configuration
+@ConditionalOnExpression("${app.bulkheads.enabled:false} or ${app.replica.enabled:false} or ${app.shards.enabled:false}")
+@EnableConfigurationProperties({ReplicaProperties.class, ShardProperties.class})
+@Slf4j
+public class DataSourceConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties,
+                                 ShardProperties shardProperties,
+                                 ObjectProvider<BulkheadProperties> bulkheadProperties,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+                                 ObjectProvider<UserWriteTracker> userWriteTracker,
+                                 ObjectProvider<ShardDirectory> shardDirectory,
+                                 Environment environment, MeterRegistry meterRegistry) {
+        HikariConfig template = Binder.get(environment)
+                .bind("spring.datasource.hikari", Bindable.ofInstance(new HikariConfig()))
+                .orElseGet(HikariConfig::new);
+        template.setJdbcUrl(dataSourceProperties.determineUrl());
+        template.setUsername(dataSourceProperties.determineUsername());
+        template.setPassword(dataSourceProperties.determinePassword());
+        template.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        template.setMetricRegistry(meterRegistry);
+
+        BulkheadProperties bulkheads = bulkheadProperties.getIfAvailable();
+        DataSource primary = nodeDataSource("primary", template, bulkheads);
+        if (shardProperties.isEnabled()) {
+            if (replicaProperties.isEnabled()) {
+                throw new IllegalStateException("Read replicas are not supported together with sharding");
+            }
+            return shardedDataSource(primary, template, shardProperties, bulkheads, shardDirectory.getObject());
+        }
+        if (!replicaProperties.isEnabled()) {
+            return primary;
+        }
+
+        HikariConfig replicaTemplate = new HikariConfig();
+        template.copyStateTo(replicaTemplate);
+        replicaTemplate.setJdbcUrl(replicaProperties.getUrl());
+        replicaTemplate.setUsername(replicaProperties.getUsername());
+        replicaTemplate.setPassword(replicaProperties.getPassword());
+        DataSource replica = nodeDataSource("replica", replicaTemplate, bulkheads);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                replicaLagMonitor.getObject(), userWriteTracker.getObject(), meterRegistry);
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.Node.primary, primary,
+                ReplicaRoutingDataSource.Node.replica, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        log.info("Read-only transactions will use the replica (max lag {} ms)", replicaProperties.getMaxLag());
+
+        return lazy(routing, template);
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private DataSource shardedDataSource(DataSource primary, HikariConfig template, ShardProperties shardProperties,
+                                         BulkheadProperties bulkheads, ShardDirectory shardDirectory) {
+        Map<Object, Object> shards = new HashMap<>();
+        shards.put(ShardContext.DEFAULT_SHARD, primary);
+        for (ShardProperties.Node node : shardProperties.getNodes()) {
+            HikariConfig shardTemplate = new HikariConfig();
+            template.copyStateTo(shardTemplate);
+            shardTemplate.setJdbcUrl(node.getUrl());
+            shardTemplate.setUsername(node.getUsername());
+            shardTemplate.setPassword(node.getPassword());
+            shards.put(node.getId(), nodeDataSource("shard" + node.getId(), shardTemplate, bulkheads));
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shardDirectory);
+        routing.setTargetDataSources(shards);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        log.info("Sharding enabled across shards {}", shards.keySet());
+        return lazy(routing, template);
+    }
+
+    // Defers borrowing until the first statement, when the transaction flags are known;
+    // defaults are set up front so the proxy does not borrow a connection to discover them
+    private DataSource lazy(DataSource target, HikariConfig template) {
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(target);
+        lazy.setDefaultAutoCommit(template.isAutoCommit());
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return lazy;
+    }
+
+    private DataSource nodeDataSource(String node, HikariConfig template, BulkheadProperties bulkheads) {
+        if (bulkheads == null) {
+            return pool(template, node, template.getMaximumPoolSize());
+        }
+
+        Map<Object, Object> partitions = new HashMap<>();
+        for (Bulkhead.Type type : Bulkhead.Type.values()) {
+            BulkheadProperties.Partition partition = bulkheads.partition(type);
+            partitions.put(type, pool(template, node + "-" + type.name(), partition.getPoolSize()));
+            log.info("Bulkhead {} on {}: {} connections, {} concurrent requests", type, node,
+                    partition.getPoolSize(), partition.getMaxConcurrent());
+        }
+
+        BulkheadRoutingDataSource dataSource = new BulkheadRoutingDataSource();
+        dataSource.setTargetDataSources(partitions);
+        dataSource.setDefaultTargetDataSource(partitions.get(Bulkhead.Type.general));
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    private HikariDataSource pool(HikariConfig template, String name, int size) {
+        HikariConfig config = new HikariConfig();
+        template.copyStateTo(config);
+        config.setPoolName(name);
+        config.setMaximumPoolSize(size);
+        HikariDataSource pool = new HikariDataSource(config);
+        pools.add(pool);
+        return pool;
+    }
+}
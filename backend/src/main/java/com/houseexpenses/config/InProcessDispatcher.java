@@ -0,0 +1,512 @@
+package com.houseexpenses.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs a request through the DispatcherServlet without a network round trip. A sub-request
+ * keeps the caller's headers but has its own method, path, body, attributes and response
+ * buffer, so several can run concurrently for one caller. Servlet filters are not applied;
+ * the caller's authentication is taken from the security context of the dispatching thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class InProcessDispatcher {
+
+    private final DispatcherServlet dispatcherServlet;
+
+    public CapturedResponse dispatch(HttpServletRequest caller, HttpServletResponse callerResponse,
+                                     String method, String path, byte[] body) throws ServletException, IOException {
+        SubRequest request = new SubRequest(caller, method, path, body);
+        CapturedResponse response = new CapturedResponse(callerResponse);
+        dispatcherServlet.service(request, response);
+        response.flushBuffer();
+        return response;
+    }
+
+    private static final class SubRequest extends HttpServletRequestWrapper {
+
+        private final String method;
+        private final String path;
+        private final String queryString;
+        private final Map<String, String[]> parameters = new LinkedHashMap<>();
+        private final byte[] body;
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        SubRequest(HttpServletRequest caller, String method, String path, byte[] body) {
+            super(caller);
+            UriComponents uri = UriComponentsBuilder.fromUriString(path).build();
+            this.method = method;
+            this.path = uri.getPath();
+            this.queryString = uri.getQuery();
+            this.body = body != null ? body : new byte[0];
+
+            MultiValueMap<String, String> query = uri.getQueryParams();
+            query.forEach((name, values) -> parameters.put(decode(name), values.stream()
+                    .map(value -> value != null ? decode(value) : "")
+                    .toArray(String[]::new)));
+        }
+
+        private static String decode(String value) {
+            return UriUtils.decode(value.replace('+', ' '), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String getMethod() {
+            return method;
+        }
+
+        @Override
+        public String getRequestURI() {
+            return getContextPath() + path;
+        }
+
+        @Override
+        public StringBuffer getRequestURL() {
+            return new StringBuffer(getScheme() + "://" + getServerName() + ":" + getServerPort() + getRequestURI());
+        }
+
+        @Override
+        public String getServletPath() {
+            return path;
+        }
+
+        @Override
+        public String getPathInfo() {
+            return null;
+        }
+
+        @Override
+        public String getQueryString() {
+            return queryString;
+        }
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameters.get(name);
+            return values != null && values.length > 0 ? values[0] : null;
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return Collections.unmodifiableMap(parameters);
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameters.keySet());
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return parameters.get(name);
+        }
+
+        @Override
+        public String getContentType() {
+            return body.length > 0 ? MediaType.APPLICATION_JSON_VALUE : null;
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return StandardCharsets.UTF_8.name();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.ACCEPT.equalsIgnoreCase(name)) {
+                // Sub-responses are embedded in the batch response as JSON
+                return MediaType.APPLICATION_JSON_VALUE;
+            }
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                return getContentType();
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return String.valueOf(body.length);
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HttpHeaders.ACCEPT.equalsIgnoreCase(name) || HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                String value = getHeader(name);
+                return Collections.enumeration(value != null ? List.of(value) : List.of());
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public int getIntHeader(String name) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return body.length;
+            }
+            return super.getIntHeader(name);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributes.remove(name);
+        }
+
+        @Override
+        public DispatcherType getDispatcherType() {
+            return DispatcherType.REQUEST;
+        }
+
+        @Override
+        public boolean isAsyncSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * Response of a sub-request, buffered in memory and never written to the caller's response.
+     */
+    public static final class CapturedResponse extends HttpServletResponseWrapper {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+        private int status = HttpServletResponse.SC_OK;
+        private String contentType;
+        private String characterEncoding = StandardCharsets.UTF_8.name();
+        private Locale locale = Locale.getDefault();
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CapturedResponse(HttpServletResponse caller) {
+            super(caller);
+        }
+
+        public byte[] getBody() {
+            return buffer.toByteArray();
+        }
+
+        public boolean isJson() {
+            return contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON);
+        }
+
+        public Charset getCharset() {
+            return Charset.forName(characterEncoding);
+        }
+
+        @Override
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public void sendError(int status) {
+            this.status = status;
+        }
+
+        @Override
+        public void sendError(int status, String message) {
+            this.status = status;
+        }
+
+        @Override
+        public void sendRedirect(String location) {
+            this.status = HttpServletResponse.SC_FOUND;
+            setHeader(HttpHeaders.LOCATION, location);
+        }
+
+        @Override
+        public void addCookie(Cookie cookie) {
+            // Sub-requests cannot set cookies on the caller's response
+        }
+
+        @Override
+        public boolean containsHeader(String name) {
+            return headers.containsKey(name);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                setContentType(value);
+                return;
+            }
+            List<String> values = new ArrayList<>();
+            values.add(value);
+            headers.put(name, values);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                setContentType(value);
+                return;
+            }
+            headers.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            setHeader(name, String.valueOf(value));
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            addHeader(name, String.valueOf(value));
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            HttpHeaders formatted = new HttpHeaders();
+            formatted.setDate(name, date);
+            setHeader(name, formatted.getFirst(name));
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            HttpHeaders formatted = new HttpHeaders();
+            formatted.setDate(name, date);
+            addHeader(name, formatted.getFirst(name));
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                return contentType;
+            }
+            List<String> values = headers.get(name);
+            return values != null && !values.isEmpty() ? values.get(0) : null;
+        }
+
+        @Override
+        public Collection<String> getHeaders(String name) {
+            List<String> values = headers.get(name);
+            return values != null ? List.copyOf(values) : List.of();
+        }
+
+        @Override
+        public Collection<String> getHeaderNames() {
+            return List.copyOf(headers.keySet());
+        }
+
+        @Override
+        public void setContentType(String type) {
+            this.contentType = type;
+            if (type != null) {
+                Charset charset = MediaType.parseMediaType(type).getCharset();
+                if (charset != null) {
+                    this.characterEncoding = charset.name();
+                }
+            }
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+            if (charset != null) {
+                this.characterEncoding = charset;
+            }
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return characterEncoding;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            // Length is known from the buffer
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            // Length is known from the buffer
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public void write(int b) {
+                        buffer.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                        buffer.write(b, off, len);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(buffer, getCharset()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+
+        @Override
+        public void reset() {
+            resetBuffer();
+            headers.clear();
+            status = HttpServletResponse.SC_OK;
+            contentType = null;
+        }
+
+        @Override
+        public void resetBuffer() {
+            flushBuffer();
+            buffer.reset();
+        }
+
+        @Override
+        public void setBufferSize(int size) {
+            // Fully buffered
+        }
+
+        @Override
+        public int getBufferSize() {
+            return buffer.size();
+        }
+
+        @Override
+        public void setLocale(Locale locale) {
+            this.locale = locale;
+        }
+
+        @Override
+        public Locale getLocale() {
+            return locale;
+        }
+    }
+}
@@ -1,31 +1,74 @@
 package com.houseexpenses.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
 public class JwtTokenProvider {
 
+    private static final String TYPE_CLAIM = "type";
+    private static final String REFRESH_TYPE = "refresh";
+    private static final String FAMILY_CLAIM = "family";
+
     private final SecretKey key;
+    private final JwtParser parser;
     private final long jwtExpiration;
     private final long refreshExpiration;
+    // Keyed by SHA-256 of the token so bearer tokens are not retained in memory
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JwtTokenProvider(
             @Value("${app.jwt.secret}") String jwtSecret,
             @Value("${app.jwt.expiration}") long jwtExpiration,
-            @Value("${app.jwt.refresh-expiration}") long refreshExpiration) {
+            @Value("${app.jwt.refresh-expiration}") long refreshExpiration,
+            @Value("${app.jwt.cache-size:10000}") long cacheSize,
+            MeterRegistry meterRegistry) {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
         this.jwtExpiration = jwtExpiration;
         this.refreshExpiration = refreshExpiration;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAt() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtTokens");
     }
 
     public String generateToken(UUID userId) {
@@ -40,36 +83,64 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String generateRefreshToken(UUID userId) {
+    public String generateRefreshToken(UUID userId, UUID familyId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + refreshExpiration);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userId.toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .claim("type", "refresh")
+                .claim(TYPE_CLAIM, REFRESH_TYPE)
+                .claim(FAMILY_CLAIM, familyId.toString())
                 .signWith(key)
                 .compact();
     }
 
-    public UUID getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifies a refresh token and returns its claims, or null when the token is invalid,
+     * is not a refresh token, or predates token ids and families.
+     */
+    public RefreshToken parseRefreshToken(String token) {
+        Claims claims = parseClaims(token);
+        if (claims == null || !REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class))
+                || claims.getId() == null || claims.get(FAMILY_CLAIM, String.class) == null) {
+            return null;
+        }
+        return new RefreshToken(
+                UUID.fromString(claims.getSubject()),
+                UUID.fromString(claims.getId()),
+                UUID.fromString(claims.get(FAMILY_CLAIM, String.class)),
+                claims.getExpiration().toInstant());
+    }
+
+    /**
+     * Verifies the token once and returns its user id, or null when the token is invalid.
+     * Verified tokens are cached until they expire, so repeated requests skip the HMAC check.
+     */
+    public UUID resolveUserId(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached.userId();
+        }
+
+        Claims claims = parseClaims(token);
+        // Refresh tokens are only accepted by the refresh endpoint
+        if (claims == null || REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class))) {
+            return null;
+        }
 
-        return UUID.fromString(claims.getSubject());
+        VerifiedToken verified = new VerifiedToken(UUID.fromString(claims.getSubject()),
+                claims.getExpiration().getTime());
+        verifiedTokens.put(digest, verified);
+        return verified.userId();
     }
 
-    public boolean validateToken(String authToken) {
+    private Claims parseClaims(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            return parser.parseSignedClaims(token).getPayload();
         } catch (SecurityException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -81,6 +152,21 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return null;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    public record RefreshToken(UUID userId, UUID tokenId, UUID familyId, Instant expiresAt) {
+    }
+
+    private record VerifiedToken(UUID userId, long expiresAt) {
     }
 }
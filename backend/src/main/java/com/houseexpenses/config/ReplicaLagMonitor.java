@@ -0,0 +1,81 @@
+package com.houseexpenses.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Polls the replica's replay lag over a dedicated connection. Until the first successful
+ * check, and whenever the replica is unreachable or too far behind, reads stay on the primary.
+ */
+@Component
+@ConditionalOnProperty(name = "app.replica.enabled", havingValue = "true")
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+
+    // A replica with nothing left to replay is current even if its last replayed commit is old
+    private static final String LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END::bigint";
+
+    private final HikariDataSource probe;
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxLag;
+    private volatile long lag = -1;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(ReplicaProperties replicaProperties, MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(replicaProperties.getUrl());
+        config.setUsername(replicaProperties.getUsername());
+        config.setPassword(replicaProperties.getPassword());
+        config.setPoolName("replica-lag-probe");
+        config.setMaximumPoolSize(1);
+        config.setConnectionTimeout(2000);
+        config.setInitializationFailTimeout(-1);
+        this.probe = new HikariDataSource(config);
+        this.jdbcTemplate = new JdbcTemplate(probe);
+        this.maxLag = replicaProperties.getMaxLag();
+
+        Gauge.builder("db.replica.lag", this, m -> m.lag).baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("db.replica.usable", this, m -> m.usable ? 1 : 0).register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.replica.lag-check-interval:2000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Long current = jdbcTemplate.queryForObject(LAG_QUERY, Long.class);
+            lag = current != null ? current : -1;
+        } catch (DataAccessException ex) {
+            lag = -1;
+            if (wasUsable) {
+                log.warn("Replica lag check failed, routing reads to the primary: {}", ex.getMessage());
+            }
+        }
+        usable = lag >= 0 && lag <= maxLag;
+
+        if (wasUsable && !usable && lag >= 0) {
+            log.warn("Replica is {} ms behind, routing reads to the primary", lag);
+        } else if (!wasUsable && usable) {
+            log.info("Replica is {} ms behind, routing read-only transactions to it", lag);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        probe.close();
+    }
+}
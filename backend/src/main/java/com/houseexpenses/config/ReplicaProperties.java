@@ -0,0 +1,25 @@
+package com.houseexpenses.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.replica")
+public class ReplicaProperties {
+
+    private boolean enabled;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    // Milliseconds the replica may trail the primary before reads go back to the primary
+    private long maxLag = 5000;
+
+    private long lagCheckInterval = 2000;
+
+    // Milliseconds a user's reads stay on the primary after one of their writes commits
+    private long stickyWindow = 10000;
+}
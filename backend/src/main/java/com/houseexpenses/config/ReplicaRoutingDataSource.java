@@ -0,0 +1,74 @@
+package com.houseexpenses.config;
+
+import com.houseexpenses.util.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. Reads fall
+ * back to the primary while the replica lags or is down, and for users who wrote recently.
+ *
+ * The transaction's read-only flag is only known once the transaction has started, so this
+ * must sit behind a LazyConnectionDataSourceProxy.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Node {
+        primary, replica
+    }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final UserWriteTracker userWriteTracker;
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter stickyReads;
+    private final Counter lagReads;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor replicaLagMonitor, UserWriteTracker userWriteTracker,
+                                    MeterRegistry meterRegistry) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.userWriteTracker = userWriteTracker;
+        this.writes = meterRegistry.counter("db.routing", "node", "primary", "reason", "write");
+        this.replicaReads = meterRegistry.counter("db.routing", "node", "replica", "reason", "read");
+        this.stickyReads = meterRegistry.counter("db.routing", "node", "primary", "reason", "sticky");
+        this.lagReads = meterRegistry.counter("db.routing", "node", "primary", "reason", "lag");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        UUID userId = SecurityUtils.currentUserId();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            recordWriteAfterCommit(userId);
+            return Node.primary;
+        }
+        if (userId != null && userWriteTracker.wroteRecently(userId)) {
+            stickyReads.increment();
+            return Node.primary;
+        }
+        if (!replicaLagMonitor.isReplicaUsable()) {
+            lagReads.increment();
+            return Node.primary;
+        }
+        replicaReads.increment();
+        return Node.replica;
+    }
+
+    private void recordWriteAfterCommit(UUID userId) {
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userWriteTracker.recordWrite(userId);
+            }
+        });
+    }
+}
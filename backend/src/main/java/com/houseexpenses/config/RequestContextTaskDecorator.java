@@ -0,0 +1,33 @@
+package com.houseexpenses.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Carries the submitting thread's user, bulkhead, shard and SQL accounting onto executor
+ * threads, so work fanned out from a request is routed and counted like the request itself.
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Bulkhead.Type bulkhead = BulkheadContext.current();
+        RequestSqlStats sqlStats = RequestSqlStats.current();
+        Runnable task = ShardContext.propagate(runnable);
+
+        return () -> {
+            SecurityContextHolder.setContext(securityContext);
+            BulkheadContext.set(bulkhead);
+            RequestSqlStats.bind(sqlStats);
+            try {
+                task.run();
+            } finally {
+                RequestSqlStats.bind(null);
+                BulkheadContext.clear();
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+}
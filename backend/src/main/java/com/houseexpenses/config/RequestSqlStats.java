@@ -0,0 +1,71 @@
+package com.houseexpenses.config;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * SQL statements and JDBC execution time attributed to the current HTTP request.
+ * Thread-safe so work fanned out to other threads can report into the same request.
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statementCount = new AtomicInteger();
+    private volatile int equivalentRequests = 1;
+    private final LongAdder executionNanos = new LongAdder();
+    private final Map<String, AtomicInteger> shapes = new ConcurrentHashMap<>();
+
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(RequestSqlStats stats) {
+        if (stats == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats);
+        }
+    }
+
+    public int recordStatement(String sql) {
+        shapes.computeIfAbsent(sql.replaceAll("\\s+", " ").trim(), k -> new AtomicInteger()).incrementAndGet();
+        return statementCount.incrementAndGet();
+    }
+
+    public void recordExecution(long nanos) {
+        executionNanos.add(nanos);
+    }
+
+    /**
+     * Lets a request that aggregates several endpoints spend their combined statement budget.
+     */
+    public void setEquivalentRequests(int equivalentRequests) {
+        this.equivalentRequests = Math.max(1, equivalentRequests);
+    }
+
+    public int budget(int maxStatementsPerRequest) {
+        return maxStatementsPerRequest * equivalentRequests;
+    }
+
+    public int getStatementCount() {
+        return statementCount.get();
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos.sum();
+    }
+
+    public List<String> getRepeatedShapes() {
+        return shapes.entrySet().stream()
+                .filter(e -> e.getValue().get() > 1)
+                .sorted(Comparator.comparingInt((Map.Entry<String, AtomicInteger> e) -> e.getValue().get()).reversed())
+                .map(e -> e.getValue().get() + "x " + e.getKey())
+                .collect(Collectors.toList());
+    }
+}
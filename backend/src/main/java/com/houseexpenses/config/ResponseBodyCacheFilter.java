@@ -0,0 +1,142 @@
+package com.houseexpenses.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.houseexpenses.util.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized bodies of read-mostly GET responses and replays them byte for byte.
+ * An entry is only served while the user's data version matches the one it was rendered
+ * under, and only on the day it was rendered, since "current period" responses move with
+ * the date. Bodies above the gzip threshold are also stored compressed.
+ */
+public class ResponseBodyCacheFilter extends OncePerRequestFilter {
+
+    private static final String CACHE_NAME = "responseBody";
+
+    private final ResponseCacheProperties properties;
+    private final UserDataVersions userDataVersions;
+    private final Cache<Key, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResponseBodyCacheFilter(ResponseCacheProperties properties, UserDataVersions userDataVersions,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.userDataVersions = userDataVersions;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize())
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .expireAfterWrite(Duration.ofMillis(properties.getTtl()))
+                .build();
+        this.hits = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "hit");
+        this.misses = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "miss");
+        Gauge.builder("cache.size", entries, Cache::estimatedSize)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        UUID userId = SecurityUtils.currentUserId();
+        if (!"GET".equals(request.getMethod()) || userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long version = userDataVersions.current(userId);
+        Key key = new Key(userId, request.getRequestURI(), request.getQueryString(),
+                request.getHeader(HttpHeaders.ACCEPT), LocalDate.now());
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null && entry.version() == version) {
+            hits.increment();
+            write(entry, request, response);
+            return;
+        }
+        misses.increment();
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        if (!isCacheable(wrapper)) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        entry = new Entry(version, wrapper.getContentType(), body,
+                body.length >= properties.getGzipMinSize() ? gzip(body) : null,
+                "\"0" + DigestUtils.md5DigestAsHex(body) + "\"");
+        entries.put(key, entry);
+        write(entry, request, response);
+    }
+
+    private boolean isCacheable(ContentCachingResponseWrapper response) {
+        return response.getStatus() == HttpStatus.OK.value()
+                && response.getContentType() != null
+                && response.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                && response.getHeader(HttpHeaders.SET_COOKIE) == null
+                && response.getContentSize() <= properties.getMaxEntrySize();
+    }
+
+    private static void write(Entry entry, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        // The body is negotiated on Accept (JSON or the binary format) as well as compressed
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (new ServletWebRequest(request, response).checkNotModified(entry.etag())) {
+            return;
+        }
+
+        byte[] body = entry.body();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (entry.gzipped() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = entry.gzipped();
+        }
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(entry.contentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    private record Key(UUID userId, String path, String query, String accept, LocalDate day) {
+    }
+
+    private record Entry(long version, String contentType, byte[] body, byte[] gzipped, String etag) {
+
+        int weight() {
+            return body.length + (gzipped != null ? gzipped.length : 0);
+        }
+    }
+}
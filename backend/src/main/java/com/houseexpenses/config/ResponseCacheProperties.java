@@ -0,0 +1,22 @@
+package com.houseexpenses.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    // Total bytes held across all entries, counting both the plain and gzip copies
+    private long maxSize = 64 * 1024 * 1024;
+
+    // Larger bodies are served normally and never stored
+    private int maxEntrySize = 512 * 1024;
+
+    private long ttl = 600000;
+
+    // Bodies smaller than this are not worth keeping a gzip copy for
+    private int gzipMinSize = 1024;
+}
@@ -0,0 +1,66 @@
+package com.houseexpenses.config;
+
+import com.houseexpenses.config.CacheInvalidationEvent.Topic;
+import com.houseexpenses.model.Budget;
+import com.houseexpenses.model.Category;
+import com.houseexpenses.model.SubCategory;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Drops second-level cache entries changed by another instance. Entity and collection entries
+ * are evicted by the ids the event names; the regions hold every user's rows, so they are only
+ * dropped whole when the event names none. Cached query results cannot be evicted per user,
+ * just as Hibernate drops them for every user on a local write to their tables, so the topic's
+ * query region goes.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheEvictor {
+
+    // Query cache regions named in the repositories' hints
+    private static final String CATEGORY_QUERIES = "category-queries";
+    private static final String BUDGET_QUERIES = "budget-queries";
+
+    private static final String SUBCATEGORIES = Category.class.getName() + ".subCategories";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        boolean byId = event.userId() != null && !event.entityIds().isEmpty();
+
+        if (event.covers(Topic.categories)) {
+            if (byId) {
+                // A category id or a subcategory id; evicting an id a region does not hold is a no-op
+                for (UUID id : event.entityIds()) {
+                    cache.evictEntityData(Category.class, id);
+                    cache.evictEntityData(SubCategory.class, id);
+                    cache.evictCollectionData(SUBCATEGORIES, id);
+                }
+            } else {
+                cache.evictEntityData(Category.class);
+                cache.evictEntityData(SubCategory.class);
+                cache.evictCollectionData(SUBCATEGORIES);
+            }
+            cache.evictQueryRegion(CATEGORY_QUERIES);
+        }
+        if (event.covers(Topic.budgets)) {
+            if (byId) {
+                for (UUID id : event.entityIds()) {
+                    cache.evictEntityData(Budget.class, id);
+                }
+            } else {
+                cache.evictEntityData(Budget.class);
+            }
+            cache.evictQueryRegion(BUDGET_QUERIES);
+        }
+    }
+}
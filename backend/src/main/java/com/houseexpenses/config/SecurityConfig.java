@@ -1,12 +1,17 @@
 package com.houseexpenses.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -15,8 +20,41 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final String METRICS_ROLE = "METRICS";
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${app.metrics.username:prometheus}")
+    private String metricsUsername;
+
+    @Value("${app.metrics.password:}")
+    private String metricsPassword;
+
+    /**
+     * The Prometheus scrape endpoint takes HTTP Basic credentials for the metrics role instead
+     * of user tokens, and is closed entirely until a password is configured.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/prometheus")
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        if (metricsPassword.isBlank()) {
+            http.authorizeHttpRequests(auth -> auth.anyRequest().denyAll());
+        } else {
+            http
+                .userDetailsService(new InMemoryUserDetailsManager(User.withUsername(metricsUsername)
+                        .password("{noop}" + metricsPassword)
+                        .roles(METRICS_ROLE)
+                        .build()))
+                .httpBasic(Customizer.withDefaults())
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole(METRICS_ROLE));
+        }
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -0,0 +1,12 @@
+package com.houseexpenses.config;
+
+/**
+ * A user's row in shard_directory. The table is managed by hand on shard 0 rather than as an
+ * entity, so deployments without sharding do not need it.
+ */
+public record ShardAssignment(int shardId, State state, Integer targetShardId) {
+
+    public enum State {
+        active, moving
+    }
+}
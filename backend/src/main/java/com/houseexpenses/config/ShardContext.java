@@ -0,0 +1,94 @@
+package com.houseexpenses.config;
+
+import com.houseexpenses.util.SecurityUtils;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard the current thread's connections come from. A pinned shard wins, then
+ * an explicitly bound user, then the authenticated user. Work with none of these runs on the
+ * default shard, which also holds the global tables.
+ *
+ * With a LazyConnectionDataSourceProxy in front, the context only has to be in place before the
+ * first statement of a transaction, not before the transaction starts.
+ */
+public final class ShardContext {
+
+    public static final int DEFAULT_SHARD = 0;
+
+    private static final ThreadLocal<UUID> USER = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+        // Utility class
+    }
+
+    public static UUID currentUserId() {
+        UUID userId = USER.get();
+        return userId != null ? userId : SecurityUtils.currentUserId();
+    }
+
+    public static Integer pinnedShard() {
+        return SHARD.get();
+    }
+
+    public static <T> T callAsUser(UUID userId, Supplier<T> task) {
+        UUID previous = USER.get();
+        USER.set(userId);
+        try {
+            return task.get();
+        } finally {
+            restore(USER, previous);
+        }
+    }
+
+    public static void runAsUser(UUID userId, Runnable task) {
+        callAsUser(userId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T callOnShard(int shardId, Supplier<T> task) {
+        Integer previous = SHARD.get();
+        SHARD.set(shardId);
+        try {
+            return task.get();
+        } finally {
+            restore(SHARD, previous);
+        }
+    }
+
+    public static void runOnShard(int shardId, Runnable task) {
+        callOnShard(shardId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static Runnable propagate(Runnable task) {
+        UUID userId = USER.get();
+        Integer shardId = SHARD.get();
+        return () -> {
+            UUID previousUser = USER.get();
+            Integer previousShard = SHARD.get();
+            restore(USER, userId);
+            restore(SHARD, shardId);
+            try {
+                task.run();
+            } finally {
+                restore(USER, previousUser);
+                restore(SHARD, previousShard);
+            }
+        };
+    }
+
+    private static <T> void restore(ThreadLocal<T> holder, T previous) {
+        if (previous != null) {
+            holder.set(previous);
+        } else {
+            holder.remove();
+        }
+    }
+}
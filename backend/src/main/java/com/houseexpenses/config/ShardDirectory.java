@@ -0,0 +1,136 @@
+package com.houseexpenses.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.houseexpenses.config.ShardAssignment.State;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maps users to shards. The shard_directory table on shard 0 is authoritative; new users are
+ * placed with a consistent hash and pinned there on their first session, and users without an
+ * entry predate sharding and live on shard 0. Lookups are cached for directory-cache-ttl, which
+ * is also how long a move waits for every instance to see a state change.
+ */
+@Component
+@ConditionalOnProperty(name = "app.shards.enabled", havingValue = "true")
+@Slf4j
+public class ShardDirectory implements DisposableBean {
+
+    private static final ShardAssignment LEGACY = new ShardAssignment(ShardContext.DEFAULT_SHARD, State.active, null);
+
+    private final HikariDataSource directoryPool;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<Integer> shardIds = new ArrayList<>();
+    private final ConsistentHashRing ring;
+    private final Cache<UUID, ShardAssignment> assignments;
+    private final long cacheTtl;
+
+    public ShardDirectory(ShardProperties shardProperties, DataSourceProperties dataSourceProperties) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(dataSourceProperties.determineUrl());
+        config.setUsername(dataSourceProperties.determineUsername());
+        config.setPassword(dataSourceProperties.determinePassword());
+        config.setPoolName("shard-directory");
+        config.setMaximumPoolSize(2);
+        config.setInitializationFailTimeout(-1);
+        this.directoryPool = new HikariDataSource(config);
+        this.jdbcTemplate = new JdbcTemplate(directoryPool);
+
+        shardIds.add(ShardContext.DEFAULT_SHARD);
+        shardProperties.getNodes().forEach(node -> shardIds.add(node.getId()));
+        this.ring = new ConsistentHashRing(shardIds, shardProperties.getVirtualNodes());
+        this.cacheTtl = shardProperties.getDirectoryCacheTtl();
+        this.assignments = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMillis(cacheTtl))
+                .build();
+    }
+
+    public List<Integer> getShardIds() {
+        return List.copyOf(shardIds);
+    }
+
+    public long getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public ShardAssignment lookup(UUID userId) {
+        return assignments.get(userId, this::load);
+    }
+
+    /**
+     * Pins a user to a shard if they have no entry yet. Users who already have a profile on
+     * shard 0 stay there; everyone else goes where the hash ring puts them.
+     */
+    public ShardAssignment place(UUID userId) {
+        ShardAssignment current = load(userId);
+        if (current != LEGACY) {
+            return current;
+        }
+
+        Integer legacy = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM user_profiles WHERE id = ?", Integer.class, userId);
+        int shardId = legacy != null && legacy > 0 ? ShardContext.DEFAULT_SHARD : ring.shardFor(userId);
+        jdbcTemplate.update("INSERT INTO shard_directory (user_id, shard_id, state, updated_at) " +
+                "VALUES (?, ?, 'active', now()) ON CONFLICT (user_id) DO NOTHING", userId, shardId);
+        assignments.invalidate(userId);
+        return lookup(userId);
+    }
+
+    /**
+     * Pins every shard in turn on the calling thread, for jobs that must touch all users.
+     */
+    public void forEachShard(Runnable task) {
+        for (int shardId : shardIds) {
+            ShardContext.runOnShard(shardId, task);
+        }
+    }
+
+    public void markMoving(UUID userId, int targetShardId) {
+        jdbcTemplate.update("INSERT INTO shard_directory (user_id, shard_id, state, target_shard_id, updated_at) " +
+                "VALUES (?, ?, 'moving', ?, now()) ON CONFLICT (user_id) DO UPDATE " +
+                "SET state = 'moving', target_shard_id = EXCLUDED.target_shard_id, updated_at = now()",
+                userId, lookup(userId).shardId(), targetShardId);
+        assignments.invalidate(userId);
+    }
+
+    public void completeMove(UUID userId, int targetShardId) {
+        jdbcTemplate.update("UPDATE shard_directory SET shard_id = ?, state = 'active', target_shard_id = NULL, " +
+                "updated_at = now() WHERE user_id = ?", targetShardId, userId);
+        assignments.invalidate(userId);
+    }
+
+    public void abortMove(UUID userId) {
+        jdbcTemplate.update("UPDATE shard_directory SET state = 'active', target_shard_id = NULL, " +
+                "updated_at = now() WHERE user_id = ?", userId);
+        assignments.invalidate(userId);
+    }
+
+    @Override
+    public void destroy() {
+        directoryPool.close();
+    }
+
+    private ShardAssignment load(UUID userId) {
+        List<ShardAssignment> rows = jdbcTemplate.query(
+                "SELECT shard_id, state, target_shard_id FROM shard_directory WHERE user_id = ?",
+                (rs, i) -> new ShardAssignment(
+                        rs.getInt("shard_id"),
+                        State.valueOf(rs.getString("state")),
+                        (Integer) rs.getObject("target_shard_id")),
+                userId);
+        return rows.isEmpty() ? LEGACY : rows.get(0);
+    }
+}
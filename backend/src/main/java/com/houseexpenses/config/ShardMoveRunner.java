@@ -0,0 +1,38 @@
+package com.houseexpenses.config;
+
+import com.houseexpenses.service.ShardMoveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Command-line entry point for moving a user between shards, e.g.
+ * {@code --spring.profiles.active=prod,shard-move --spring.main.web-application-type=none --user=<id> --to=2}
+ */
+@Component
+@Profile("shard-move")
+@RequiredArgsConstructor
+public class ShardMoveRunner implements ApplicationRunner {
+
+    private final ShardMoveService shardMoveService;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> user = args.getOptionValues("user");
+        List<String> to = args.getOptionValues("to");
+        if (user == null || to == null) {
+            throw new IllegalArgumentException("Usage: --user=<user id> --to=<shard id>");
+        }
+
+        shardMoveService.move(UUID.fromString(user.get(0)), Integer.parseInt(to.get(0)));
+        System.exit(SpringApplication.exit(applicationContext));
+    }
+}
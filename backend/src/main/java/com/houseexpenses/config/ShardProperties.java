@@ -0,0 +1,30 @@
+package com.houseexpenses.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.shards")
+public class ShardProperties {
+
+    private boolean enabled;
+
+    // Shard 0 is spring.datasource; these are the additional shards
+    private List<Node> nodes = new ArrayList<>();
+
+    // How long a directory entry may be served from the local cache
+    private long directoryCacheTtl = 30000;
+
+    private int virtualNodes = 128;
+
+    @Data
+    public static class Node {
+        private int id;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
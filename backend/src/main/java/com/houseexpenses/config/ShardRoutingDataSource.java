@@ -0,0 +1,40 @@
+package com.houseexpenses.config;
+
+import com.houseexpenses.exception.ShardMovingException;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Sends each connection to the shard of the user in {@link ShardContext}. While a user is being
+ * moved, read-only transactions keep using the source shard and writes are refused.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ShardDirectory shardDirectory;
+
+    public ShardRoutingDataSource(ShardDirectory shardDirectory) {
+        this.shardDirectory = shardDirectory;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer pinned = ShardContext.pinnedShard();
+        if (pinned != null) {
+            return pinned;
+        }
+
+        UUID userId = ShardContext.currentUserId();
+        if (userId == null) {
+            return ShardContext.DEFAULT_SHARD;
+        }
+
+        ShardAssignment assignment = shardDirectory.lookup(userId);
+        if (assignment.state() == ShardAssignment.State.moving
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new ShardMovingException(userId);
+        }
+        return assignment.shardId();
+    }
+}
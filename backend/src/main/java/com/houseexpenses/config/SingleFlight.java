@@ -0,0 +1,92 @@
+package com.houseexpenses.config;
+
+import com.houseexpenses.util.SecurityUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares one execution between identical concurrent computations for the same user.
+ * A user's committed write detaches their in-flight computations, so later callers start
+ * a fresh one instead of receiving a result that may predate their own change.
+ */
+@Component
+public class SingleFlight implements TransactionExecutionListener {
+
+    private final Map<Key, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(@Value("${app.single-flight.enabled:true}") boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("singleflight.inflight", inflight, Map::size).register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, UUID userId, Supplier<T> computation, Object... params) {
+        if (!enabled || userId == null) {
+            return computation.get();
+        }
+
+        Key key = new Key(operation, userId, Arrays.asList(params));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflight.putIfAbsent(key, flight);
+        if (existing != null) {
+            meterRegistry.counter("singleflight.calls", "operation", operation, "result", "joined").increment();
+            return (T) await(existing);
+        }
+
+        meterRegistry.counter("singleflight.calls", "operation", operation, "result", "executed").increment();
+        try {
+            T result = computation.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inflight.remove(key, flight);
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (transaction.isReadOnly() || inflight.isEmpty()) {
+            return;
+        }
+        UUID userId = SecurityUtils.currentUserId();
+        if (userId != null) {
+            inflight.keySet().removeIf(key -> key.userId().equals(userId));
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record Key(String operation, UUID userId, List<Object> params) {
+    }
+}
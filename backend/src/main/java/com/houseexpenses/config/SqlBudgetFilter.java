@@ -0,0 +1,59 @@
+package com.houseexpenses.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+
+    public SqlBudgetFilter(MeterRegistry meterRegistry, int maxStatements) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestSqlStats stats = new RequestSqlStats();
+        RequestSqlStats.bind(stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.bind(null);
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+        meterRegistry.timer("http.server.requests.sql.time", "method", request.getMethod(), "uri", uri)
+                .record(stats.getExecutionNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatementCount() > stats.budget(maxStatements)) {
+            log.warn("{} {} executed {} SQL statements ({} ms) over a budget of {}, repeated: {}",
+                    request.getMethod(), uri, stats.getStatementCount(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getExecutionNanos()), stats.budget(maxStatements),
+                    stats.getRepeatedShapes());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.houseexpenses.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request SQL statement counts and budget, enabled in the dev and test profiles. Requests
+ * over the budget are logged; the per-endpoint budgets enforced by the build live in the
+ * query-count tests.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-budget.enabled", havingValue = "true")
+public class SqlMonitoringConfig {
+
+    @Value("${app.sql-budget.max-statements:10}")
+    private int maxStatements;
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCountingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingSessionListener.class.getName());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlBudgetFilter(meterRegistry, maxStatements));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
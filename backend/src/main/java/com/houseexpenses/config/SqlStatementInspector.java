@@ -0,0 +1,15 @@
+package com.houseexpenses.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.recordStatement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,25 @@
+package com.houseexpenses.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Instantiated by Hibernate for every session; a session is confined to one thread,
+ * so the start timestamp needs no synchronization.
+ */
+public class SqlTimingSessionListener implements SessionEventListener {
+
+    private long executeStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.recordExecution(System.nanoTime() - executeStart);
+        }
+    }
+}
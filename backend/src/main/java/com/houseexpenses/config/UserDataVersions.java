@@ -0,0 +1,65 @@
+package com.houseexpenses.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.houseexpenses.util.SecurityUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of each user's data, moved forward whenever one of their writes commits here or
+ * another instance reports a change. Values come from one global sequence and never repeat,
+ * so anything derived under an older version can be recognised as stale.
+ * <p>
+ * Users idle for longer than the response cache TTL are forgotten. They get a fresh value on
+ * their next request, which matches no stored response, so forgetting a version can only cost
+ * a cache miss.
+ */
+@Component
+public class UserDataVersions implements TransactionExecutionListener {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<UUID, Long> versions;
+
+    public UserDataVersions(ResponseCacheProperties properties) {
+        // Kept at least as long as a response stored under the version can be served
+        this.versions = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(properties.getTtl()))
+                .build();
+    }
+
+    public long current(UUID userId) {
+        return versions.get(userId, id -> sequence.incrementAndGet());
+    }
+
+    public void advance(UUID userId) {
+        versions.put(userId, sequence.incrementAndGet());
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (transaction.isReadOnly() || commitFailure != null) {
+            return;
+        }
+        UUID userId = SecurityUtils.currentUserId();
+        if (userId != null) {
+            advance(userId);
+        }
+    }
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.userId() != null) {
+            advance(event.userId());
+            return;
+        }
+        // Every user gets a fresh value on their next request
+        versions.invalidateAll();
+    }
+}
@@ -0,0 +1,34 @@
+package com.houseexpenses.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Remembers users who committed a write within the sticky window, so their next reads
+ * see their own changes even when the replica has not caught up yet.
+ */
+@Component
+@ConditionalOnProperty(name = "app.replica.enabled", havingValue = "true")
+public class UserWriteTracker {
+
+    private final Cache<UUID, Boolean> recentWriters;
+
+    public UserWriteTracker(ReplicaProperties replicaProperties) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(replicaProperties.getStickyWindow()))
+                .build();
+    }
+
+    public void recordWrite(UUID userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently(UUID userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+}
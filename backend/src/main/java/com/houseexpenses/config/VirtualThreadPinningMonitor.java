@@ -0,0 +1,80 @@
+package com.houseexpenses.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Guards virtual-thread mode against carrier pinning: warns at startup when the JDBC
+ * driver still synchronizes on connections and streams JFR pinning events to the log.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    // pgjdbc replaced synchronized blocks with ReentrantLock in 42.6.0
+    private static final int MIN_PG_MAJOR = 42;
+    private static final int MIN_PG_MINOR = 6;
+
+    private final Duration threshold;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(@Value("${app.concurrency.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        checkJdbcDriver();
+
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::logPinnedEvent);
+        recordingStream.startAsync();
+    }
+
+    @Override
+    public void destroy() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void checkJdbcDriver() {
+        for (Driver driver : Collections.list(DriverManager.getDrivers())) {
+            if (driver.getClass().getName().startsWith("org.postgresql")) {
+                boolean supported = driver.getMajorVersion() > MIN_PG_MAJOR ||
+                        (driver.getMajorVersion() == MIN_PG_MAJOR && driver.getMinorVersion() >= MIN_PG_MINOR);
+                if (!supported) {
+                    log.warn("PostgreSQL driver {}.{} pins virtual threads on every query, upgrade to {}.{}+",
+                            driver.getMajorVersion(), driver.getMinorVersion(), MIN_PG_MAJOR, MIN_PG_MINOR);
+                }
+            }
+        }
+    }
+
+    private void logPinnedEvent(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ?
+                event.getStackTrace().getFrames() : Collections.emptyList();
+        String stack = frames.stream()
+                .limit(8)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+        log.warn("Virtual thread pinned for {} ms: {}", event.getDuration().toMillis(), stack);
+    }
+}
@@ -30,19 +30,20 @@ public class AlertController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
 
-        Page<AlertDTO> alerts = alertService.getAlerts(userId,
-                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+        Page<AlertDTO> alerts = findAlerts(userId, page, size);
+        return ResponseEntity.ok(ApiResponse.success(alerts.getContent(), toPagination(alerts)));
+    }
 
-        ApiResponse.PaginationInfo pagination = ApiResponse.PaginationInfo.builder()
-                .page(alerts.getNumber())
-                .size(alerts.getSize())
-                .totalElements(alerts.getTotalElements())
-                .totalPages(alerts.getTotalPages())
-                .hasNext(alerts.hasNext())
-                .hasPrevious(alerts.hasPrevious())
-                .build();
+    @GetMapping(params = "shape=normalized")
+    @Operation(summary = "List alerts (normalized)", description = "Same as the alert list, with categories and "
+            + "subcategories sent once in dictionaries and referenced by id from each alert")
+    public ResponseEntity<ApiResponse<AlertListDTO>> getAlertsNormalized(
+            @AuthenticationPrincipal UUID userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
 
-        return ResponseEntity.ok(ApiResponse.success(alerts.getContent(), pagination));
+        Page<AlertDTO> alerts = findAlerts(userId, page, size);
+        return ResponseEntity.ok(ApiResponse.success(alertService.normalize(alerts.getContent()), toPagination(alerts)));
     }
 
     @GetMapping("/unread")
@@ -53,6 +54,15 @@ public class AlertController {
         return ResponseEntity.ok(ApiResponse.success(alerts));
     }
 
+    @GetMapping(value = "/unread", params = "shape=normalized")
+    @Operation(summary = "Get unread alerts (normalized)", description = "Same as the unread alerts, with categories "
+            + "and subcategories sent once in dictionaries")
+    public ResponseEntity<ApiResponse<AlertListDTO>> getUnreadAlertsNormalized(
+            @AuthenticationPrincipal UUID userId) {
+        List<AlertDTO> alerts = alertService.getUnreadAlerts(userId);
+        return ResponseEntity.ok(ApiResponse.success(alertService.normalize(alerts)));
+    }
+
     @GetMapping("/count")
     @Operation(summary = "Get unread count", description = "Returns the count of unread alerts")
     public ResponseEntity<ApiResponse<Long>> getUnreadCount(
@@ -77,4 +87,20 @@ public class AlertController {
         alertService.markAllAsRead(userId);
         return ResponseEntity.ok(ApiResponse.success(null, "All alerts marked as read"));
     }
+
+    private Page<AlertDTO> findAlerts(UUID userId, int page, int size) {
+        return alertService.getAlerts(userId,
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    private ApiResponse.PaginationInfo toPagination(Page<?> alerts) {
+        return ApiResponse.PaginationInfo.builder()
+                .page(alerts.getNumber())
+                .size(alerts.getSize())
+                .totalElements(alerts.getTotalElements())
+                .totalPages(alerts.getTotalPages())
+                .hasNext(alerts.hasNext())
+                .hasPrevious(alerts.hasPrevious())
+                .build();
+    }
 }
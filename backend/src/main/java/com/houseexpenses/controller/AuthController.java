@@ -1,5 +1,6 @@
 package com.houseexpenses.controller;
 
+import com.houseexpenses.config.Bulkhead;
 import com.houseexpenses.dto.ApiResponse;
 import com.houseexpenses.model.User;
 import com.houseexpenses.service.AuthService;
@@ -16,6 +17,7 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/v1/auth")
 @RequiredArgsConstructor
+@Bulkhead(Bulkhead.Type.auth)
 @Tag(name = "Authentication", description = "Authentication and user management endpoints")
 public class AuthController {
 
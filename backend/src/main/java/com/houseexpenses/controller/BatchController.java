@@ -0,0 +1,171 @@
+package com.houseexpenses.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.houseexpenses.config.InProcessDispatcher;
+import com.houseexpenses.config.InProcessDispatcher.CapturedResponse;
+import com.houseexpenses.config.RequestContextTaskDecorator;
+import com.houseexpenses.config.RequestSqlStats;
+import com.houseexpenses.dto.ApiResponse;
+import com.houseexpenses.dto.BatchItemResultDTO;
+import com.houseexpenses.dto.BatchRequestDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+@RestController
+@RequestMapping("/v1/batch")
+@Slf4j
+@Tag(name = "Batch", description = "Run several API requests in one round trip")
+public class BatchController implements DisposableBean {
+
+    private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "PATCH", "DELETE");
+
+    // Endpoints that block on work of their own; nesting them would hold batch threads while they wait
+    private static final List<String> UNBATCHABLE_PATHS = List.of("/v1/batch", "/v1/bootstrap");
+
+    private final InProcessDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final int maxParallelism;
+
+    public BatchController(InProcessDispatcher dispatcher, ObjectMapper objectMapper,
+                           @Value("${app.batch.max-parallelism:4}") int maxParallelism,
+                           @Value("${app.batch.threads:16}") int threads,
+                           @Value("${app.batch.queue-capacity:64}") int queueCapacity) {
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+        this.maxParallelism = maxParallelism;
+
+        // Batch reads get their own threads so they never wait behind, or starve, @Async work
+        // on applicationTaskExecutor; when the queue is full the request thread runs the item itself
+        this.taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setThreadNamePrefix("batch-");
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setQueueCapacity(queueCapacity);
+        taskExecutor.setTaskDecorator(new RequestContextTaskDecorator());
+        taskExecutor.initialize();
+    }
+
+    @PostMapping
+    @Operation(summary = "Run a batch", description = "Runs the sub-requests in order under the caller's authentication. "
+            + "Consecutive GETs run in parallel; any other method waits for everything before it and blocks "
+            + "everything after it. Returns each sub-request's status and body in request order.")
+    public ResponseEntity<ApiResponse<List<BatchItemResultDTO>>> execute(
+            @Valid @RequestBody BatchRequestDTO batch,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        List<BatchRequestDTO.Item> items = batch.getRequests();
+        items.forEach(this::validate);
+
+        RequestSqlStats sqlStats = RequestSqlStats.current();
+        if (sqlStats != null) {
+            sqlStats.setEquivalentRequests(items.size());
+        }
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[items.size()];
+        int index = 0;
+        while (index < items.size()) {
+            if (!isRead(items.get(index))) {
+                results[index] = dispatch(request, response, items.get(index));
+                index++;
+                continue;
+            }
+
+            Semaphore slots = new Semaphore(maxParallelism);
+            List<CompletableFuture<Void>> reads = new ArrayList<>();
+            for (; index < items.size() && isRead(items.get(index)); index++) {
+                int position = index;
+                slots.acquireUninterruptibly();
+                Runnable read = () -> {
+                    try {
+                        results[position] = dispatch(request, response, items.get(position));
+                    } finally {
+                        slots.release();
+                    }
+                };
+                try {
+                    reads.add(CompletableFuture.runAsync(read, taskExecutor));
+                } catch (TaskRejectedException ex) {
+                    // The request thread already carries the caller's context, so it runs undecorated
+                    read.run();
+                }
+            }
+            CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new)).join();
+        }
+
+        return ResponseEntity.ok(ApiResponse.success(Arrays.asList(results)));
+    }
+
+    private void validate(BatchRequestDTO.Item item) {
+        String method = item.getMethod().toUpperCase(Locale.ROOT);
+        if (!METHODS.contains(method)) {
+            throw new IllegalArgumentException("Unsupported batch method: " + item.getMethod());
+        }
+        String path = item.getPath();
+        if (!path.startsWith("/v1/") || UNBATCHABLE_PATHS.stream().anyMatch(path::startsWith) || path.contains("..")) {
+            throw new IllegalArgumentException("Unsupported batch path: " + path);
+        }
+        item.setMethod(method);
+    }
+
+    @Override
+    public void destroy() {
+        taskExecutor.shutdown();
+    }
+
+    private static boolean isRead(BatchRequestDTO.Item item) {
+        return "GET".equals(item.getMethod());
+    }
+
+    private BatchItemResultDTO dispatch(HttpServletRequest request, HttpServletResponse response,
+                                        BatchRequestDTO.Item item) {
+        try {
+            byte[] body = item.getBody() != null ? objectMapper.writeValueAsBytes(item.getBody()) : null;
+            CapturedResponse captured = dispatcher.dispatch(request, response, item.getMethod(), item.getPath(), body);
+            return BatchItemResultDTO.builder()
+                    .status(captured.getStatus())
+                    .body(readBody(captured))
+                    .build();
+        } catch (IOException | ServletException | RuntimeException ex) {
+            log.error("Batch sub-request {} {} failed", item.getMethod(), item.getPath(), ex);
+            return BatchItemResultDTO.builder()
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                    .body(objectMapper.valueToTree(ApiResponse.error("INTERNAL_ERROR", "An unexpected error occurred")))
+                    .build();
+        }
+    }
+
+    private JsonNode readBody(CapturedResponse captured) throws IOException {
+        byte[] body = captured.getBody();
+        if (body.length == 0) {
+            return null;
+        }
+        if (captured.isJson()) {
+            return objectMapper.readTree(body);
+        }
+        return TextNode.valueOf(new String(body, captured.getCharset()));
+    }
+}
@@ -0,0 +1,34 @@
+package com.houseexpenses.controller;
+
+import com.houseexpenses.config.Bulkhead;
+import com.houseexpenses.dto.ApiResponse;
+import com.houseexpenses.dto.BootstrapDTO;
+import com.houseexpenses.service.BootstrapService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/v1/bootstrap")
+@RequiredArgsConstructor
+@Bulkhead(Bulkhead.Type.analytics)
+@Tag(name = "Bootstrap", description = "App launch endpoint")
+public class BootstrapController {
+
+    private final BootstrapService bootstrapService;
+
+    @GetMapping
+    @Operation(summary = "Get launch data", description = "Returns profile, categories, budgets, budget statuses, "
+            + "dashboard summary and weekly/monthly charts in one response; supports If-None-Match")
+    public ResponseEntity<ApiResponse<BootstrapDTO>> getBootstrap(@AuthenticationPrincipal UUID userId) {
+        BootstrapDTO bootstrap = bootstrapService.getBootstrap(userId);
+        return ResponseEntity.ok(ApiResponse.success(bootstrap));
+    }
+}
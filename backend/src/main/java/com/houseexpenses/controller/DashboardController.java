@@ -1,5 +1,7 @@
 package com.houseexpenses.controller;
 
+import com.houseexpenses.config.Bulkhead;
+import com.houseexpenses.config.SingleFlight;
 import com.houseexpenses.dto.*;
 import com.houseexpenses.model.Budget.BudgetPeriod;
 import com.houseexpenses.service.DashboardService;
@@ -16,10 +18,12 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/v1/dashboard")
 @RequiredArgsConstructor
+@Bulkhead(Bulkhead.Type.analytics)
 @Tag(name = "Dashboard", description = "Dashboard and analytics endpoints")
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final SingleFlight singleFlight;
 
     @GetMapping("/summary")
     @Operation(summary = "Get dashboard summary", description = "Returns overall spending summary for specified or current month")
@@ -27,7 +31,8 @@ public class DashboardController {
             @AuthenticationPrincipal UUID userId,
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) Integer month) {
-        DashboardDTO summary = dashboardService.getSummary(userId, year, month);
+        DashboardDTO summary = singleFlight.execute("dashboard.summary", userId,
+                () -> dashboardService.getSummary(userId, year, month), year, month);
         return ResponseEntity.ok(ApiResponse.success(summary));
     }
 
@@ -38,7 +43,8 @@ public class DashboardController {
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) Integer month,
             @RequestParam(required = false) Integer day) {
-        ChartDataDTO data = dashboardService.getWeeklyData(userId, year, month, day);
+        ChartDataDTO data = singleFlight.execute("dashboard.weekly", userId,
+                () -> dashboardService.getWeeklyData(userId, year, month, day), year, month, day);
         return ResponseEntity.ok(ApiResponse.success(data));
     }
 
@@ -48,7 +54,8 @@ public class DashboardController {
             @AuthenticationPrincipal UUID userId,
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) Integer month) {
-        ChartDataDTO data = dashboardService.getMonthlyData(userId, year, month);
+        ChartDataDTO data = singleFlight.execute("dashboard.monthly", userId,
+                () -> dashboardService.getMonthlyData(userId, year, month), year, month);
         return ResponseEntity.ok(ApiResponse.success(data));
     }
 
@@ -57,7 +64,8 @@ public class DashboardController {
     public ResponseEntity<ApiResponse<ChartDataDTO>> getAnnualData(
             @AuthenticationPrincipal UUID userId,
             @RequestParam(required = false) Integer year) {
-        ChartDataDTO data = dashboardService.getAnnualData(userId, year);
+        ChartDataDTO data = singleFlight.execute("dashboard.annual", userId,
+                () -> dashboardService.getAnnualData(userId, year), year);
         return ResponseEntity.ok(ApiResponse.success(data));
     }
 
@@ -66,7 +74,8 @@ public class DashboardController {
     public ResponseEntity<ApiResponse<List<CategorySpendingDTO>>> getCategoryBreakdown(
             @AuthenticationPrincipal UUID userId,
             @RequestParam(defaultValue = "monthly") BudgetPeriod period) {
-        List<CategorySpendingDTO> breakdown = dashboardService.getCategoryBreakdown(userId, period);
+        List<CategorySpendingDTO> breakdown = singleFlight.execute("dashboard.category-breakdown", userId,
+                () -> dashboardService.getCategoryBreakdown(userId, period), period);
         return ResponseEntity.ok(ApiResponse.success(breakdown));
     }
 }
@@ -1,5 +1,6 @@
 package com.houseexpenses.controller;
 
+import com.houseexpenses.config.Bulkhead;
 import com.houseexpenses.dto.*;
 import com.houseexpenses.service.ExpenseService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -39,15 +40,40 @@ public class ExpenseController {
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "expenseDate,desc") String sort) {
 
+        Page<ExpenseDTO> expenses = findExpenses(userId, startDate, endDate, categoryId, subCategoryId, page, size, sort);
+        return ResponseEntity.ok(ApiResponse.success(expenses.getContent(), toPagination(expenses)));
+    }
+
+    @GetMapping(params = "shape=normalized")
+    @Operation(summary = "List expenses (normalized)", description = "Same as the expense list, with categories and "
+            + "subcategories sent once in dictionaries and referenced by id from each expense")
+    public ResponseEntity<ApiResponse<ExpenseListDTO>> getExpensesNormalized(
+            @AuthenticationPrincipal UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) UUID subCategoryId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "expenseDate,desc") String sort) {
+
+        Page<ExpenseDTO> expenses = findExpenses(userId, startDate, endDate, categoryId, subCategoryId, page, size, sort);
+        return ResponseEntity.ok(ApiResponse.success(expenseService.normalize(expenses.getContent()), toPagination(expenses)));
+    }
+
+    private Page<ExpenseDTO> findExpenses(UUID userId, LocalDate startDate, LocalDate endDate, UUID categoryId,
+                                          UUID subCategoryId, int page, int size, String sort) {
         String[] sortParams = sort.split(",");
         Sort sortObj = Sort.by(sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
                 Sort.Direction.ASC : Sort.Direction.DESC, sortParams[0]);
 
-        Page<ExpenseDTO> expenses = expenseService.getExpenses(
+        return expenseService.getExpenses(
                 userId, startDate, endDate, categoryId, subCategoryId,
                 PageRequest.of(page, size, sortObj));
+    }
 
-        ApiResponse.PaginationInfo pagination = ApiResponse.PaginationInfo.builder()
+    private ApiResponse.PaginationInfo toPagination(Page<?> expenses) {
+        return ApiResponse.PaginationInfo.builder()
                 .page(expenses.getNumber())
                 .size(expenses.getSize())
                 .totalElements(expenses.getTotalElements())
@@ -55,8 +81,6 @@ public class ExpenseController {
                 .hasNext(expenses.hasNext())
                 .hasPrevious(expenses.hasPrevious())
                 .build();
-
-        return ResponseEntity.ok(ApiResponse.success(expenses.getContent(), pagination));
     }
 
     @GetMapping("/{id}")
@@ -69,6 +93,7 @@ public class ExpenseController {
     }
 
     @PostMapping
+    @Bulkhead(Bulkhead.Type.transactional)
     @Operation(summary = "Create expense", description = "Creates a new expense")
     public ResponseEntity<ApiResponse<ExpenseDTO>> createExpense(
             @AuthenticationPrincipal UUID userId,
@@ -79,6 +104,7 @@ public class ExpenseController {
     }
 
     @PostMapping("/bulk")
+    @Bulkhead(Bulkhead.Type.transactional)
     @Operation(summary = "Create bulk expenses", description = "Creates multiple expenses at once")
     public ResponseEntity<ApiResponse<List<ExpenseDTO>>> createBulkExpenses(
             @AuthenticationPrincipal UUID userId,
@@ -89,6 +115,7 @@ public class ExpenseController {
     }
 
     @PutMapping("/{id}")
+    @Bulkhead(Bulkhead.Type.transactional)
     @Operation(summary = "Update expense", description = "Updates an existing expense")
     public ResponseEntity<ApiResponse<ExpenseDTO>> updateExpense(
             @AuthenticationPrincipal UUID userId,
@@ -99,6 +126,7 @@ public class ExpenseController {
     }
 
     @DeleteMapping("/{id}")
+    @Bulkhead(Bulkhead.Type.transactional)
     @Operation(summary = "Delete expense", description = "Deletes an expense")
     public ResponseEntity<ApiResponse<Void>> deleteExpense(
             @AuthenticationPrincipal UUID userId,
@@ -0,0 +1,16 @@
+package com.houseexpenses.dto;
+
+import lombok.*;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertListDTO {
+    private Map<UUID, CategoryDTO> categories;
+    private Map<UUID, SubCategoryDTO> subCategories;
+    private List<AlertRowDTO> alerts;
+}
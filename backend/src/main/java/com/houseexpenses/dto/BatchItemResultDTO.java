@@ -0,0 +1,13 @@
+package com.houseexpenses.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchItemResultDTO {
+    private int status;
+    private JsonNode body;
+}
@@ -0,0 +1,36 @@
+package com.houseexpenses.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchRequestDTO {
+
+    @NotEmpty(message = "At least one request is required")
+    @Size(max = 20, message = "A batch cannot contain more than 20 requests")
+    @Valid
+    private List<Item> requests;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+
+        @NotBlank(message = "Method is required")
+        private String method;
+
+        @NotBlank(message = "Path is required")
+        private String path;
+
+        private JsonNode body;
+    }
+}
@@ -0,0 +1,19 @@
+package com.houseexpenses.dto;
+
+import com.houseexpenses.model.User;
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BootstrapDTO {
+    private User profile;
+    private List<CategoryDTO> categories;
+    private List<BudgetDTO> budgets;
+    private List<BudgetStatusDTO> budgetStatuses;
+    private DashboardDTO summary;
+    private ChartDataDTO weekly;
+    private ChartDataDTO monthly;
+}
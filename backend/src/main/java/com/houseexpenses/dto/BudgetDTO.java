@@ -1,8 +1,8 @@
 package com.houseexpenses.dto;
 
 import com.houseexpenses.model.Budget.BudgetPeriod;
+import com.houseexpenses.model.Money;
 import lombok.*;
-import java.math.BigDecimal;
 import java.util.UUID;
 
 @Data
@@ -13,7 +13,7 @@ public class BudgetDTO {
     private UUID id;
     private CategoryDTO category;
     private SubCategoryDTO subCategory;
-    private BigDecimal limitAmount;
+    private Money limitAmount;
     private Integer warningThreshold;
     private BudgetPeriod period;
 }
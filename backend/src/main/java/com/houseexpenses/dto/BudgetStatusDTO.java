@@ -1,5 +1,6 @@
 package com.houseexpenses.dto;
 
+import com.houseexpenses.model.Money;
 import lombok.*;
 import java.math.BigDecimal;
 
@@ -9,8 +10,8 @@ import java.math.BigDecimal;
 @Builder
 public class BudgetStatusDTO {
     private BudgetDTO budget;
-    private BigDecimal currentSpending;
-    private BigDecimal remainingAmount;
+    private Money currentSpending;
+    private Money remainingAmount;
     private BigDecimal utilizationPercentage;
     private Status status;
     private Integer daysRemaining;
@@ -1,5 +1,6 @@
 package com.houseexpenses.dto;
 
+import com.houseexpenses.model.Money;
 import lombok.*;
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -13,7 +14,7 @@ public class CategorySpendingDTO {
     private String categoryName;
     private String icon;
     private String color;
-    private BigDecimal amount;
-    private BigDecimal budgetLimit;
+    private Money amount;
+    private Money budgetLimit;
     private BigDecimal percentage;
 }
@@ -1,7 +1,7 @@
 package com.houseexpenses.dto;
 
+import com.houseexpenses.model.Money;
 import lombok.*;
-import java.math.BigDecimal;
 import java.util.List;
 
 @Data
@@ -10,8 +10,8 @@ import java.util.List;
 @Builder
 public class ChartDataDTO {
     private List<DataPoint> dataPoints;
-    private BigDecimal total;
-    private BigDecimal average;
+    private Money total;
+    private Money average;
 
     @Data
     @NoArgsConstructor
@@ -19,7 +19,7 @@ public class ChartDataDTO {
     @Builder
     public static class DataPoint {
         private String label;
-        private BigDecimal value;
+        private Money value;
         private String color;
     }
 }
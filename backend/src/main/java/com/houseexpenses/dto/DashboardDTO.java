@@ -1,5 +1,6 @@
 package com.houseexpenses.dto;
 
+import com.houseexpenses.model.Money;
 import lombok.*;
 import java.math.BigDecimal;
 import java.util.List;
@@ -9,8 +10,8 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 public class DashboardDTO {
-    private BigDecimal totalSpending;
-    private BigDecimal budgetLimit;
+    private Money totalSpending;
+    private Money budgetLimit;
     private BigDecimal utilizationPercentage;
     private List<CategorySpendingDTO> topCategories;
     private List<ExpenseDTO> recentExpenses;
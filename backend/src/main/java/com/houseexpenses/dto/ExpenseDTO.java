@@ -1,8 +1,8 @@
 package com.houseexpenses.dto;
 
 import com.houseexpenses.model.Expense.ExpenseType;
+import com.houseexpenses.model.Money;
 import lombok.*;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -15,7 +15,7 @@ public class ExpenseDTO {
     private UUID id;
     private CategoryDTO category;
     private SubCategoryDTO subCategory;
-    private BigDecimal amount;
+    private Money amount;
     private String description;
     private LocalDate date;
     private ExpenseType expenseType;
@@ -0,0 +1,23 @@
+package com.houseexpenses.dto;
+
+import com.houseexpenses.model.Expense.ExpenseType;
+import com.houseexpenses.model.Money;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseRowDTO {
+    private UUID id;
+    private UUID categoryId;
+    private UUID subCategoryId;
+    private Money amount;
+    private String description;
+    private LocalDate date;
+    private ExpenseType expenseType;
+    private OffsetDateTime createdAt;
+}
@@ -1,8 +1,8 @@
 package com.houseexpenses.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.houseexpenses.model.Money;
 import lombok.*;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -17,7 +17,7 @@ public class PendingExpenseDTO {
     private String categoryName;
     private String categoryColor;
     private String categoryExpenseType;
-    private BigDecimal expectedAmount;
+    private Money expectedAmount;
 
     @JsonProperty("isFixed")
     private boolean isFixed;
@@ -25,7 +25,7 @@ public class PendingExpenseDTO {
     @JsonProperty("isPaidThisPeriod")
     private boolean isPaidThisPeriod;
 
-    private BigDecimal paidAmount;
+    private Money paidAmount;
     private LocalDate lastPaidDate;
     private int paymentCount;
 }
@@ -1,5 +1,6 @@
 package com.houseexpenses.dto;
 
+import com.houseexpenses.model.Money;
 import lombok.*;
 import java.util.UUID;
 
@@ -12,7 +13,7 @@ public class SubCategoryDTO {
     private String name;
     private String icon;
     private Integer displayOrder;
-    private Double budgetLimit;
+    private Money budgetLimit;
     private Boolean isMandatory;
-    private Double fixedAmount;
+    private Money fixedAmount;
 }
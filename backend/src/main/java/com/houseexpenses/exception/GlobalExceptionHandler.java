@@ -2,6 +2,7 @@ package com.houseexpenses.exception;
 
 import com.houseexpenses.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -46,6 +47,15 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("DUPLICATE_RESOURCE", ex.getMessage()));
     }
 
+    @ExceptionHandler(ShardMovingException.class)
+    public ResponseEntity<ApiResponse<Void>> handleShardMoving(ShardMovingException ex) {
+        log.warn("Rejected write for user {} during shard move", ex.getUserId());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(ApiResponse.error("USER_MOVING", ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Void>> handleValidationErrors(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -0,0 +1,17 @@
+package com.houseexpenses.exception;
+
+import lombok.Getter;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.util.UUID;
+
+@Getter
+public class ShardMovingException extends TransientDataAccessResourceException {
+
+    private final UUID userId;
+
+    public ShardMovingException(UUID userId) {
+        super("User data is being moved to another shard");
+        this.userId = userId;
+    }
+}
@@ -2,12 +2,15 @@ package com.houseexpenses.model;
 
 import jakarta.persistence.*;
 import lombok.*;
-import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "budgets")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "budgets")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,7 +33,8 @@ public class Budget {
     private SubCategory subCategory;
 
     @Column(name = "limit_amount", nullable = false, precision = 10, scale = 2)
-    private BigDecimal limitAmount;
+    @Convert(converter = MoneyConverter.class)
+    private Money limitAmount;
 
     @Column(name = "warning_threshold")
     @Builder.Default
@@ -2,7 +2,6 @@ package com.houseexpenses.model;
 
 import jakarta.persistence.*;
 import lombok.*;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -31,7 +30,8 @@ public class Expense {
     private SubCategory subCategory;
 
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
 
     @Column(columnDefinition = "TEXT")
     private String description;
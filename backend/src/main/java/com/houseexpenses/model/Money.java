@@ -0,0 +1,109 @@
+package com.houseexpenses.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of cents. Arithmetic stays on the long, and rounding
+ * matches what the BigDecimal code it replaces did at scale 2 with HALF_UP. Serialized as a
+ * plain JSON number, so API payloads and stored snapshot totals keep their shape.
+ */
+public record Money(long cents) implements Comparable<Money>, Serializable {
+
+    public static final Money ZERO = new Money(0);
+
+    // One hundred percent in the hundredths of a percent basisPointsOf returns
+    public static final long HUNDRED_PERCENT = 10_000;
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return ofCents(amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Reads a legacy double amount the way {@code BigDecimal.valueOf(double)} does, which uses
+     * its shortest decimal form rather than its exact binary value.
+     */
+    public static Money of(double amount) {
+        return of(BigDecimal.valueOf(amount));
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    /**
+     * This amount split evenly into {@code parts}, rounded half up to the cent.
+     */
+    public Money dividedBy(int parts) {
+        return ofCents(divideHalfUp(cents, parts));
+    }
+
+    /**
+     * This amount as a share of {@code whole} in hundredths of a percent, rounded half up, so
+     * 2500 is 25.00%. Same result as {@code this * 100 / whole} at scale 2.
+     */
+    public long basisPointsOf(Money whole) {
+        return divideHalfUp(Math.multiplyExact(cents, HUNDRED_PERCENT), whole.cents);
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isAtLeast(Money other) {
+        return cents >= other.cents;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    /**
+     * Hundredths of a percent as the scale 2 percentage the API reports.
+     */
+    public static BigDecimal percentage(long basisPoints) {
+        return BigDecimal.valueOf(basisPoints, 2);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    // Rounds ties away from zero, like RoundingMode.HALF_UP
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,21 @@
+package com.houseexpenses.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Money} in the older double precision columns, rounding to the cent on read.
+ */
+@Converter
+public class MoneyAsDoubleConverter implements AttributeConverter<Money, Double> {
+
+    @Override
+    public Double convertToDatabaseColumn(Money money) {
+        return money != null ? money.toDouble() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Double value) {
+        return value != null ? Money.of(value) : null;
+    }
+}
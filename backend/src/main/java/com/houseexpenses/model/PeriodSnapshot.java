@@ -0,0 +1,72 @@
+package com.houseexpenses.model;
+
+import com.houseexpenses.model.Budget.BudgetPeriod;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Entity
+@Table(name = "period_snapshots",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "period", "period_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PeriodSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    // monthly or annual
+    @Column(nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private BudgetPeriod period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private Totals totals;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now();
+    }
+
+    /**
+     * Sums over expenses in active categories, matching the live dashboard queries. Buckets
+     * are the chart points: weeks of the month from the 1st, or the twelve months of a year.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Totals {
+        private Money total;
+        private List<Money> buckets;
+        private Map<UUID, Money> categories;
+        private Map<UUID, SubCategoryTotal> subCategories;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SubCategoryTotal {
+        private Money amount;
+        private long count;
+        private LocalDate lastDate;
+    }
+}
@@ -0,0 +1,36 @@
+package com.houseexpenses.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    // Token jti, or the family id when the whole family is revoked
+    @Id
+    private UUID id;
+
+    @Column(name = "token_type", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private TokenType tokenType;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private OffsetDateTime revokedAt;
+
+    public enum TokenType {
+        refresh, family
+    }
+}
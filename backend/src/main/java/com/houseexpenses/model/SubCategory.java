@@ -2,11 +2,15 @@ package com.houseexpenses.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "subcategories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subcategories")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,14 +36,16 @@ public class SubCategory {
     private Integer displayOrder = 0;
 
     @Column(name = "budget_limit")
-    private Double budgetLimit;
+    @Convert(converter = MoneyAsDoubleConverter.class)
+    private Money budgetLimit;
 
     @Column(name = "is_mandatory")
     @Builder.Default
     private Boolean isMandatory = false;
 
     @Column(name = "fixed_amount")
-    private Double fixedAmount;
+    @Convert(converter = MoneyAsDoubleConverter.class)
+    private Money fixedAmount;
 
     @Column(name = "is_active")
     @Builder.Default
@@ -28,10 +28,12 @@ public class User {
     private String locale = "pt-PT";
 
     @Column(name = "monthly_budget_limit")
-    private Double monthlyBudgetLimit;
+    @Convert(converter = MoneyAsDoubleConverter.class)
+    private Money monthlyBudgetLimit;
 
     @Column(name = "annual_budget_limit")
-    private Double annualBudgetLimit;
+    @Convert(converter = MoneyAsDoubleConverter.class)
+    private Money annualBudgetLimit;
 
     @Column(name = "created_at")
     private OffsetDateTime createdAt;
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,11 +21,16 @@ public interface AlertRepository extends JpaRepository<Alert, UUID> {
 
     long countByUserIdAndIsReadFalse(UUID userId);
 
+    @Query("SELECT a.userId, COUNT(a) FROM Alert a WHERE a.userId IN :userIds AND a.isRead = false GROUP BY a.userId")
+    List<Object[]> countUnreadByUserIds(@Param("userIds") Collection<UUID> userIds);
+
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
     @Modifying
     @Query("UPDATE Alert a SET a.isRead = true WHERE a.userId = :userId AND a.isRead = false")
     int markAllAsRead(@Param("userId") UUID userId);
 
     @Modifying
-    @Query("UPDATE Alert a SET a.isRead = true WHERE a.id = :id AND a.userId = :userId")
+    @Query("UPDATE Alert a SET a.isRead = true WHERE a.id = :id AND a.userId = :userId AND a.isRead = false")
     int markAsRead(@Param("id") UUID id, @Param("userId") UUID userId);
 }
@@ -2,8 +2,11 @@ package com.houseexpenses.repository;
 
 import com.houseexpenses.model.Budget;
 import com.houseexpenses.model.Budget.BudgetPeriod;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -29,5 +32,9 @@ public interface BudgetRepository extends JpaRepository<Budget, UUID> {
             UUID userId, UUID categoryId, BudgetPeriod period);
 
     @Query("SELECT b FROM Budget b LEFT JOIN FETCH b.category LEFT JOIN FETCH b.subCategory WHERE b.userId = :userId")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "budget-queries")
+    })
     List<Budget> findByUserIdWithDetails(@Param("userId") UUID userId);
 }
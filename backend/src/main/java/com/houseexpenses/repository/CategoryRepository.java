@@ -2,8 +2,11 @@ package com.houseexpenses.repository;
 
 import com.houseexpenses.model.Category;
 import com.houseexpenses.model.Category.ExpenseType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -17,7 +20,14 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
     List<Category> findByUserIdAndExpenseTypeAndIsActiveTrueOrderByDisplayOrder(UUID userId, ExpenseType expenseType);
 
     @Query("SELECT c FROM Category c LEFT JOIN FETCH c.subCategories WHERE c.userId = :userId AND c.isActive = true ORDER BY c.displayOrder")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "category-queries")
+    })
     List<Category> findByUserIdWithSubCategories(@Param("userId") UUID userId);
 
+    @Query("SELECT c.id, c.isActive FROM Category c WHERE c.userId = :userId")
+    List<Object[]> findActiveFlagsByUserId(@Param("userId") UUID userId);
+
     boolean existsByUserIdAndNameIgnoreCase(UUID userId, String name);
 }
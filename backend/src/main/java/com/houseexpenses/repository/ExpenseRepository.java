@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -91,6 +92,40 @@ public interface ExpenseRepository extends JpaRepository<Expense, UUID> {
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    @Query("SELECT e.expenseDate, SUM(e.amount) FROM Expense e " +
+           "WHERE e.userId = :userId " +
+           "AND e.category.isActive = true " +
+           "AND e.expenseDate >= :startDate AND e.expenseDate <= :endDate " +
+           "GROUP BY e.expenseDate")
+    List<Object[]> sumByDay(
+            @Param("userId") UUID userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Every expense of the user in the shape the in-memory column store loads, oldest first
+    @Query("SELECT e.id, e.expenseDate, e.amount, c.id, c.isActive, s.id FROM Expense e " +
+           "JOIN e.category c LEFT JOIN e.subCategory s " +
+           "WHERE e.userId = :userId " +
+           "ORDER BY e.expenseDate")
+    List<Object[]> findColumnsByUserId(@Param("userId") UUID userId);
+
+    // Same shape as findColumnsByUserId, for rows written after a point in time
+    @Query("SELECT e.id, e.expenseDate, e.amount, c.id, c.isActive, s.id FROM Expense e " +
+           "JOIN e.category c LEFT JOIN e.subCategory s " +
+           "WHERE e.userId = :userId AND e.updatedAt > :since")
+    List<Object[]> findColumnsByUserIdUpdatedAfter(@Param("userId") UUID userId,
+                                                   @Param("since") OffsetDateTime since);
+
+    @Query("SELECT e.id FROM Expense e WHERE e.userId = :userId")
+    List<UUID> findIdsByUserId(@Param("userId") UUID userId);
+
+    // Users and the year and month of each month they recorded expenses in
+    @Query("SELECT DISTINCT e.userId, year(e.expenseDate), month(e.expenseDate) FROM Expense e " +
+           "WHERE e.expenseDate >= :startDate AND e.expenseDate <= :endDate")
+    List<Object[]> findActiveMonths(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     @Query("SELECT e FROM Expense e WHERE e.userId = :userId " +
            "AND e.category.isActive = true " +
            "AND e.expenseDate >= :startDate AND e.expenseDate <= :endDate " +
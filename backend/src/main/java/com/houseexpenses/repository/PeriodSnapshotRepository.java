@@ -0,0 +1,34 @@
+package com.houseexpenses.repository;
+
+import com.houseexpenses.model.Budget.BudgetPeriod;
+import com.houseexpenses.model.PeriodSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PeriodSnapshotRepository extends JpaRepository<PeriodSnapshot, UUID> {
+
+    Optional<PeriodSnapshot> findByUserIdAndPeriodAndPeriodStart(UUID userId, BudgetPeriod period, LocalDate periodStart);
+
+    @Query("SELECT s.userId, s.period, s.periodStart FROM PeriodSnapshot s WHERE s.periodStart >= :since")
+    List<Object[]> findKeysSince(@Param("since") LocalDate since);
+
+    @Modifying
+    @Query("DELETE FROM PeriodSnapshot s WHERE s.userId = :userId AND s.period = :period " +
+           "AND s.periodStart = :periodStart")
+    int deleteByUserIdAndPeriodAndPeriodStart(
+            @Param("userId") UUID userId,
+            @Param("period") BudgetPeriod period,
+            @Param("periodStart") LocalDate periodStart);
+
+    @Modifying
+    @Query("DELETE FROM PeriodSnapshot s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,28 @@
+package com.houseexpenses.repository;
+
+import com.houseexpenses.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(OffsetDateTime revokedAfter, OffsetDateTime expiresAfter);
+
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (id, token_type, user_id, expires_at, revoked_at) " +
+            "VALUES (:id, :tokenType, :userId, :expiresAt, now()) ON CONFLICT (id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id, @Param("tokenType") String tokenType,
+                       @Param("userId") UUID userId, @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") OffsetDateTime now);
+}
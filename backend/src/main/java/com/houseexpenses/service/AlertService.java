@@ -7,6 +7,8 @@ import com.houseexpenses.model.Alert.AlertType;
 import com.houseexpenses.model.Budget.BudgetPeriod;
 import com.houseexpenses.repository.*;
 import com.houseexpenses.util.DateUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -15,9 +17,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -28,7 +32,9 @@ public class AlertService {
 
     private final AlertRepository alertRepository;
     private final BudgetRepository budgetRepository;
-    private final ExpenseRepository expenseRepository;
+    private final ExpenseColumnStore expenseColumnStore;
+    private final UnreadAlertCounter unreadAlertCounter;
+    private final MeterRegistry meterRegistry;
 
     @Transactional(readOnly = true)
     public Page<AlertDTO> getAlerts(UUID userId, Pageable pageable) {
@@ -43,36 +49,45 @@ public class AlertService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
     public long getUnreadCount(UUID userId) {
-        return alertRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadAlertCounter.get(userId);
     }
 
     @Transactional
     public void markAsRead(UUID userId, UUID alertId) {
         int updated = alertRepository.markAsRead(alertId, userId);
         if (updated == 0) {
-            throw new ResourceNotFoundException("Alert", "id", alertId);
+            if (!alertRepository.existsByIdAndUserId(alertId, userId)) {
+                throw new ResourceNotFoundException("Alert", "id", alertId);
+            }
+            return;
         }
+        unreadAlertCounter.decrement(userId, updated);
         log.info("Marked alert {} as read for user {}", alertId, userId);
     }
 
     @Transactional
     public void markAllAsRead(UUID userId) {
         int updated = alertRepository.markAllAsRead(userId);
+        unreadAlertCounter.decrement(userId, updated);
         log.info("Marked {} alerts as read for user {}", updated, userId);
     }
 
     @Transactional
     public void checkBudgetAndCreateAlert(UUID userId, UUID categoryId, UUID subCategoryId, LocalDate expenseDate) {
-        List<Budget> budgets = budgetRepository.findByUserId(userId).stream()
-                .filter(b -> b.getCategory().getId().equals(categoryId))
-                .filter(b -> subCategoryId == null || b.getSubCategory() == null ||
-                        b.getSubCategory().getId().equals(subCategoryId))
-                .collect(Collectors.toList());
-
-        for (Budget budget : budgets) {
-            checkAndCreateAlertForBudget(userId, budget, expenseDate);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            List<Budget> budgets = budgetRepository.findByUserId(userId).stream()
+                    .filter(b -> b.getCategory().getId().equals(categoryId))
+                    .filter(b -> subCategoryId == null || b.getSubCategory() == null ||
+                            b.getSubCategory().getId().equals(subCategoryId))
+                    .collect(Collectors.toList());
+
+            for (Budget budget : budgets) {
+                checkAndCreateAlertForBudget(userId, budget, expenseDate);
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("alerts.evaluation"));
         }
     }
 
@@ -81,26 +96,22 @@ public class AlertService {
         LocalDate startDate = dateRange[0];
         LocalDate endDate = dateRange[1];
 
-        BigDecimal currentSpending;
+        Money currentSpending;
         if (budget.getSubCategory() != null) {
-            currentSpending = expenseRepository.sumBySubCategoryAndDateRange(
+            currentSpending = expenseColumnStore.sumBySubCategoryAndDateRange(
                     userId, budget.getSubCategory().getId(), startDate, endDate);
         } else {
-            currentSpending = expenseRepository.sumByCategoryAndDateRange(
+            currentSpending = expenseColumnStore.sumByCategoryAndDateRange(
                     userId, budget.getCategory().getId(), startDate, endDate);
         }
 
-        BigDecimal percentage = BigDecimal.ZERO;
-        if (budget.getLimitAmount().compareTo(BigDecimal.ZERO) > 0) {
-            percentage = currentSpending
-                    .multiply(BigDecimal.valueOf(100))
-                    .divide(budget.getLimitAmount(), 2, RoundingMode.HALF_UP);
-        }
+        long utilization = budget.getLimitAmount().isPositive()
+                ? currentSpending.basisPointsOf(budget.getLimitAmount()) : 0;
 
-        if (percentage.compareTo(BigDecimal.valueOf(100)) >= 0) {
-            createAlert(userId, budget, AlertType.exceeded, percentage);
-        } else if (percentage.compareTo(BigDecimal.valueOf(budget.getWarningThreshold())) >= 0) {
-            createAlert(userId, budget, AlertType.warning, percentage);
+        if (utilization >= Money.HUNDRED_PERCENT) {
+            createAlert(userId, budget, AlertType.exceeded, Money.percentage(utilization));
+        } else if (utilization >= budget.getWarningThreshold() * 100L) {
+            createAlert(userId, budget, AlertType.warning, Money.percentage(utilization));
         }
     }
 
@@ -130,9 +141,39 @@ public class AlertService {
                 .build();
 
         alertRepository.save(alert);
+        unreadAlertCounter.increment(userId);
         log.info("Created {} alert for user {} - {}", type, userId, message);
     }
 
+    public AlertListDTO normalize(List<AlertDTO> alerts) {
+        Map<UUID, CategoryDTO> categories = new LinkedHashMap<>();
+        Map<UUID, SubCategoryDTO> subCategories = new LinkedHashMap<>();
+        List<AlertRowDTO> rows = new ArrayList<>(alerts.size());
+
+        for (AlertDTO alert : alerts) {
+            categories.putIfAbsent(alert.getCategory().getId(), alert.getCategory());
+            if (alert.getSubCategory() != null) {
+                subCategories.putIfAbsent(alert.getSubCategory().getId(), alert.getSubCategory());
+            }
+            rows.add(AlertRowDTO.builder()
+                    .id(alert.getId())
+                    .alertType(alert.getAlertType())
+                    .message(alert.getMessage())
+                    .percentage(alert.getPercentage())
+                    .isRead(alert.getIsRead())
+                    .createdAt(alert.getCreatedAt())
+                    .categoryId(alert.getCategory().getId())
+                    .subCategoryId(alert.getSubCategory() != null ? alert.getSubCategory().getId() : null)
+                    .build());
+        }
+
+        return AlertListDTO.builder()
+                .categories(categories)
+                .subCategories(subCategories)
+                .alerts(rows)
+                .build();
+    }
+
     private AlertDTO mapToDTO(Alert alert) {
         Budget budget = alert.getBudget();
         return AlertDTO.builder()
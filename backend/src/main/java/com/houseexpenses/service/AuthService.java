@@ -1,10 +1,15 @@
 package com.houseexpenses.service;
 
 import com.houseexpenses.config.JwtTokenProvider;
+import com.houseexpenses.config.JwtTokenProvider.RefreshToken;
+import com.houseexpenses.config.ShardContext;
+import com.houseexpenses.config.ShardDirectory;
+import com.houseexpenses.model.Money;
 import com.houseexpenses.model.User;
 import com.houseexpenses.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,40 +24,32 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final ObjectProvider<ShardDirectory> shardDirectory;
 
     @Transactional
     public Map<String, String> createUserSession(UUID userId, String displayName) {
-        User user = userRepository.findById(userId).orElse(null);
-
-        if (user == null) {
-            user = User.builder()
-                    .id(userId)
-                    .displayName(displayName)
-                    .build();
-            userRepository.save(user);
-            log.info("Created new user profile for {}", userId);
-        }
-
-        String accessToken = jwtTokenProvider.generateToken(userId);
-        String refreshToken = jwtTokenProvider.generateRefreshToken(userId);
-
-        Map<String, String> tokens = new HashMap<>();
-        tokens.put("accessToken", accessToken);
-        tokens.put("refreshToken", refreshToken);
-
-        return tokens;
+        // The session endpoint is unauthenticated, so the user is bound explicitly for shard routing
+        shardDirectory.ifAvailable(directory -> directory.place(userId));
+        return ShardContext.callAsUser(userId, () -> openSession(userId, displayName));
     }
 
-    @Transactional
+    // Not transactional: a family revoked on reuse must stay revoked when the request fails
     public Map<String, String> refreshTokens(String refreshToken) {
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        RefreshToken token = jwtTokenProvider.parseRefreshToken(refreshToken);
+        if (token == null || tokenRevocationStore.isFamilyRevoked(token.familyId())) {
             throw new IllegalArgumentException("Invalid refresh token");
         }
 
-        UUID userId = jwtTokenProvider.getUserIdFromToken(refreshToken);
+        UUID userId = token.userId();
+        if (!tokenRevocationStore.revokeToken(token.tokenId(), token.familyId(), userId, token.expiresAt())) {
+            log.warn("Refresh token reuse detected for user {}, revoking token family {}", userId, token.familyId());
+            tokenRevocationStore.revokeFamily(token.familyId(), userId);
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
 
         String newAccessToken = jwtTokenProvider.generateToken(userId);
-        String newRefreshToken = jwtTokenProvider.generateRefreshToken(userId);
+        String newRefreshToken = jwtTokenProvider.generateRefreshToken(userId, token.familyId());
 
         Map<String, String> tokens = new HashMap<>();
         tokens.put("accessToken", newAccessToken);
@@ -82,9 +79,31 @@ public class AuthService {
             user.setLocale(locale);
         }
         // Budget limits can be set to null to remove them
-        user.setMonthlyBudgetLimit(monthlyBudgetLimit);
-        user.setAnnualBudgetLimit(annualBudgetLimit);
+        user.setMonthlyBudgetLimit(monthlyBudgetLimit != null ? Money.of(monthlyBudgetLimit) : null);
+        user.setAnnualBudgetLimit(annualBudgetLimit != null ? Money.of(annualBudgetLimit) : null);
 
         return userRepository.save(user);
     }
+
+    private Map<String, String> openSession(UUID userId, String displayName) {
+        User user = userRepository.findById(userId).orElse(null);
+
+        if (user == null) {
+            user = User.builder()
+                    .id(userId)
+                    .displayName(displayName)
+                    .build();
+            userRepository.save(user);
+            log.info("Created new user profile for {}", userId);
+        }
+
+        String accessToken = jwtTokenProvider.generateToken(userId);
+        String refreshToken = jwtTokenProvider.generateRefreshToken(userId, UUID.randomUUID());
+
+        Map<String, String> tokens = new HashMap<>();
+        tokens.put("accessToken", accessToken);
+        tokens.put("refreshToken", refreshToken);
+
+        return tokens;
+    }
 }
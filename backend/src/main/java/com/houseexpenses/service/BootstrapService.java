@@ -0,0 +1,67 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.config.RequestSqlStats;
+import com.houseexpenses.config.SingleFlight;
+import com.houseexpenses.dto.*;
+import com.houseexpenses.model.User;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Assembles what the app needs at launch in one read-only transaction, so a launch holds a
+ * single analytics connection instead of one per part. The category tree is loaded first and
+ * the persistence context serves it to the other parts.
+ */
+@Service
+public class BootstrapService {
+
+    // Endpoints this replaces, for the per-request SQL statement budget
+    private static final int PARTS = 7;
+
+    private final AuthService authService;
+    private final CategoryService categoryService;
+    private final BudgetService budgetService;
+    private final DashboardService dashboardService;
+    private final SingleFlight singleFlight;
+
+    public BootstrapService(AuthService authService, CategoryService categoryService, BudgetService budgetService,
+                            DashboardService dashboardService, SingleFlight singleFlight) {
+        this.authService = authService;
+        this.categoryService = categoryService;
+        this.budgetService = budgetService;
+        this.dashboardService = dashboardService;
+        this.singleFlight = singleFlight;
+    }
+
+    @Transactional(readOnly = true)
+    public BootstrapDTO getBootstrap(UUID userId) {
+        RequestSqlStats sqlStats = RequestSqlStats.current();
+        if (sqlStats != null) {
+            sqlStats.setEquivalentRequests(PARTS);
+        }
+
+        List<CategoryDTO> categories = categoryService.getAllCategories(userId);
+        User profile = authService.getUserProfile(userId);
+        List<BudgetDTO> budgets = budgetService.getAllBudgets(userId);
+        List<BudgetStatusDTO> budgetStatuses = budgetService.getAllBudgetStatuses(userId);
+        DashboardDTO summary = singleFlight.execute("dashboard.summary", userId,
+                () -> dashboardService.getSummary(userId, null, null), null, null);
+        ChartDataDTO weekly = singleFlight.execute("dashboard.weekly", userId,
+                () -> dashboardService.getWeeklyData(userId, null, null, null), null, null, null);
+        ChartDataDTO monthly = singleFlight.execute("dashboard.monthly", userId,
+                () -> dashboardService.getMonthlyData(userId, null, null), null, null);
+
+        return BootstrapDTO.builder()
+                .profile(profile)
+                .categories(categories)
+                .budgets(budgets)
+                .budgetStatuses(budgetStatuses)
+                .summary(summary)
+                .weekly(weekly)
+                .monthly(monthly)
+                .build();
+    }
+}
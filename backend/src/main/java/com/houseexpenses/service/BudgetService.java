@@ -1,5 +1,7 @@
 package com.houseexpenses.service;
 
+import com.houseexpenses.config.CacheInvalidationBus;
+import com.houseexpenses.config.CacheInvalidationEvent.Topic;
 import com.houseexpenses.dto.*;
 import com.houseexpenses.exception.ResourceNotFoundException;
 import com.houseexpenses.model.*;
@@ -11,8 +13,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -26,7 +26,8 @@ public class BudgetService {
     private final BudgetRepository budgetRepository;
     private final CategoryRepository categoryRepository;
     private final SubCategoryRepository subCategoryRepository;
-    private final ExpenseRepository expenseRepository;
+    private final ExpenseColumnStore expenseColumnStore;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     @Transactional(readOnly = true)
     public List<BudgetDTO> getAllBudgets(UUID userId) {
@@ -58,12 +59,13 @@ public class BudgetService {
                 .userId(userId)
                 .category(category)
                 .subCategory(subCategory)
-                .limitAmount(dto.getLimitAmount())
+                .limitAmount(Money.of(dto.getLimitAmount()))
                 .warningThreshold(dto.getWarningThreshold() != null ? dto.getWarningThreshold() : 80)
                 .period(dto.getPeriod())
                 .build();
 
         budget = budgetRepository.save(budget);
+        cacheInvalidationBus.publish(Topic.budgets, userId, List.of(budget.getId()));
         log.info("Created budget {} for user {}", budget.getId(), userId);
 
         return mapToDTO(budget);
@@ -75,12 +77,13 @@ public class BudgetService {
                 .filter(b -> b.getUserId().equals(userId))
                 .orElseThrow(() -> new ResourceNotFoundException("Budget", "id", budgetId));
 
-        budget.setLimitAmount(dto.getLimitAmount());
+        budget.setLimitAmount(Money.of(dto.getLimitAmount()));
         if (dto.getWarningThreshold() != null) {
             budget.setWarningThreshold(dto.getWarningThreshold());
         }
 
         budget = budgetRepository.save(budget);
+        cacheInvalidationBus.publish(Topic.budgets, userId, List.of(budgetId));
         log.info("Updated budget {} for user {}", budgetId, userId);
 
         return mapToDTO(budget);
@@ -93,6 +96,7 @@ public class BudgetService {
                 .orElseThrow(() -> new ResourceNotFoundException("Budget", "id", budgetId));
 
         budgetRepository.delete(budget);
+        cacheInvalidationBus.publish(Topic.budgets, userId, List.of(budgetId));
         log.info("Deleted budget {} for user {}", budgetId, userId);
     }
 
@@ -118,27 +122,23 @@ public class BudgetService {
         LocalDate startDate = dateRange[0];
         LocalDate endDate = dateRange[1];
 
-        BigDecimal currentSpending;
+        Money currentSpending;
         if (budget.getSubCategory() != null) {
-            currentSpending = expenseRepository.sumBySubCategoryAndDateRange(
+            currentSpending = expenseColumnStore.sumBySubCategoryAndDateRange(
                     userId, budget.getSubCategory().getId(), startDate, endDate);
         } else {
-            currentSpending = expenseRepository.sumByCategoryAndDateRange(
+            currentSpending = expenseColumnStore.sumByCategoryAndDateRange(
                     userId, budget.getCategory().getId(), startDate, endDate);
         }
 
-        BigDecimal remainingAmount = budget.getLimitAmount().subtract(currentSpending);
-        BigDecimal utilizationPercentage = BigDecimal.ZERO;
-        if (budget.getLimitAmount().compareTo(BigDecimal.ZERO) > 0) {
-            utilizationPercentage = currentSpending
-                    .multiply(BigDecimal.valueOf(100))
-                    .divide(budget.getLimitAmount(), 2, RoundingMode.HALF_UP);
-        }
+        Money remainingAmount = budget.getLimitAmount().minus(currentSpending);
+        long utilization = budget.getLimitAmount().isPositive()
+                ? currentSpending.basisPointsOf(budget.getLimitAmount()) : 0;
 
         BudgetStatusDTO.Status status = BudgetStatusDTO.Status.ok;
-        if (utilizationPercentage.compareTo(BigDecimal.valueOf(100)) >= 0) {
+        if (utilization >= Money.HUNDRED_PERCENT) {
             status = BudgetStatusDTO.Status.exceeded;
-        } else if (utilizationPercentage.compareTo(BigDecimal.valueOf(budget.getWarningThreshold())) >= 0) {
+        } else if (utilization >= budget.getWarningThreshold() * 100L) {
             status = BudgetStatusDTO.Status.warning;
         }
 
@@ -148,7 +148,7 @@ public class BudgetService {
                 .budget(mapToDTO(budget))
                 .currentSpending(currentSpending)
                 .remainingAmount(remainingAmount)
-                .utilizationPercentage(utilizationPercentage)
+                .utilizationPercentage(Money.percentage(utilization))
                 .status(status)
                 .daysRemaining(daysRemaining)
                 .build();
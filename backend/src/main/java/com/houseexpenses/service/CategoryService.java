@@ -1,5 +1,7 @@
 package com.houseexpenses.service;
 
+import com.houseexpenses.config.CacheInvalidationBus;
+import com.houseexpenses.config.CacheInvalidationEvent.Topic;
 import com.houseexpenses.dto.*;
 import com.houseexpenses.exception.DuplicateResourceException;
 import com.houseexpenses.exception.ResourceNotFoundException;
@@ -22,6 +24,9 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final SubCategoryRepository subCategoryRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final PeriodSnapshotService periodSnapshotService;
+    private final ExpenseColumnStore expenseColumnStore;
 
     @Transactional(readOnly = true)
     public List<CategoryDTO> getAllCategories(UUID userId) {
@@ -72,6 +77,7 @@ public class CategoryService {
                 .build();
 
         category = categoryRepository.save(category);
+        cacheInvalidationBus.publish(Topic.categories, userId, List.of(category.getId()));
         log.info("Created category {} for user {} at position {}", category.getId(), userId, displayOrder);
 
         return mapToDTO(category);
@@ -92,6 +98,7 @@ public class CategoryService {
         }
 
         category = categoryRepository.save(category);
+        cacheInvalidationBus.publish(Topic.categories, userId, List.of(categoryId));
         log.info("Updated category {} for user {}", categoryId, userId);
 
         return mapToDTO(category);
@@ -105,6 +112,10 @@ public class CategoryService {
 
         category.setIsActive(false);
         categoryRepository.save(category);
+        // Past totals only count active categories
+        periodSnapshotService.invalidateAll(userId);
+        expenseColumnStore.deactivateCategory(userId, categoryId);
+        cacheInvalidationBus.publish(Topic.categories, userId, List.of(categoryId));
         log.info("Soft deleted category {} for user {}", categoryId, userId);
     }
 
@@ -123,12 +134,13 @@ public class CategoryService {
                 .name(dto.getName())
                 .icon(dto.getIcon())
                 .displayOrder(dto.getDisplayOrder() != null ? dto.getDisplayOrder() : 0)
-                .budgetLimit(dto.getBudgetLimit())
+                .budgetLimit(toMoney(dto.getBudgetLimit()))
                 .isMandatory(dto.getIsMandatory() != null ? dto.getIsMandatory() : false)
-                .fixedAmount(dto.getFixedAmount())
+                .fixedAmount(toMoney(dto.getFixedAmount()))
                 .build();
 
         subCategory = subCategoryRepository.save(subCategory);
+        cacheInvalidationBus.publish(Topic.categories, userId, List.of(categoryId, subCategory.getId()));
         log.info("Created subcategory {} for category {}", subCategory.getId(), categoryId);
 
         return mapSubCategoryToDTO(subCategory);
@@ -145,11 +157,13 @@ public class CategoryService {
         if (dto.getDisplayOrder() != null) {
             subCategory.setDisplayOrder(dto.getDisplayOrder());
         }
-        subCategory.setBudgetLimit(dto.getBudgetLimit());
+        subCategory.setBudgetLimit(toMoney(dto.getBudgetLimit()));
         subCategory.setIsMandatory(dto.getIsMandatory() != null ? dto.getIsMandatory() : false);
-        subCategory.setFixedAmount(dto.getFixedAmount());
+        subCategory.setFixedAmount(toMoney(dto.getFixedAmount()));
 
         subCategory = subCategoryRepository.save(subCategory);
+        cacheInvalidationBus.publish(Topic.categories, userId,
+                List.of(subCategory.getCategory().getId(), subCategoryId));
         log.info("Updated subcategory {}", subCategoryId);
 
         return mapSubCategoryToDTO(subCategory);
@@ -163,6 +177,8 @@ public class CategoryService {
 
         subCategory.setIsActive(false);
         subCategoryRepository.save(subCategory);
+        cacheInvalidationBus.publish(Topic.categories, userId,
+                List.of(subCategory.getCategory().getId(), subCategoryId));
         log.info("Soft deleted subcategory {}", subCategoryId);
     }
 
@@ -197,6 +213,8 @@ public class CategoryService {
         }
 
         categoryRepository.saveAll(sameTypeCategories);
+        cacheInvalidationBus.publish(Topic.categories, userId,
+                sameTypeCategories.stream().map(Category::getId).toList());
         log.info("Reordered category {} to position {} for user {}", categoryId, newOrder, userId);
 
         return mapToDTO(category);
@@ -228,4 +246,8 @@ public class CategoryService {
                 .fixedAmount(subCategory.getFixedAmount())
                 .build();
     }
+
+    private static Money toMoney(Double amount) {
+        return amount != null ? Money.of(amount) : null;
+    }
 }
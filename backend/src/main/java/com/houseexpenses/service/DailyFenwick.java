@@ -0,0 +1,130 @@
+package com.houseexpenses.service;
+
+import java.util.Arrays;
+
+/**
+ * Fenwick tree of daily totals in cents over only the days that have any, so a date range sum
+ * is two binary searches and two O(log n) prefix walks. Instances are immutable, so every
+ * addition is linear in the number of days: a day already present costs a copy of the tree and
+ * an O(log n) walk over it, and a new day rebuilds the tree from the daily totals.
+ */
+final class DailyFenwick {
+
+    static final DailyFenwick EMPTY = new DailyFenwick(new int[0], new long[1]);
+
+    // Sorted epoch days, and the 1-based tree over their totals
+    private final int[] days;
+    private final long[] tree;
+
+    private DailyFenwick(int[] days, long[] tree) {
+        this.days = days;
+        this.tree = tree;
+    }
+
+    /**
+     * Builds the tree in linear time from the first {@code count} sorted days and their totals.
+     */
+    static DailyFenwick of(int[] days, long[] totals, int count) {
+        long[] tree = new long[count + 1];
+        System.arraycopy(totals, 0, tree, 1, count);
+        for (int i = 1; i <= count; i++) {
+            int parent = i + (i & -i);
+            if (parent <= count) {
+                tree[parent] += tree[i];
+            }
+        }
+        return new DailyFenwick(Arrays.copyOf(days, count), tree);
+    }
+
+    long sum(int fromDay, int toDay) {
+        if (fromDay > toDay) {
+            return 0;
+        }
+        return prefix(upperBound(toDay)) - prefix(lowerBound(fromDay));
+    }
+
+    DailyFenwick plus(int day, long cents) {
+        int at = Arrays.binarySearch(days, day);
+        if (at >= 0) {
+            long[] updated = tree.clone();
+            for (int i = at + 1; i < updated.length; i += i & -i) {
+                updated[i] += cents;
+            }
+            return new DailyFenwick(days, updated);
+        }
+        // A new day shifts every position after it, so rebuild from the daily totals
+        int insertAt = -at - 1;
+        long[] totals = totals();
+        int count = days.length + 1;
+        int[] newDays = new int[count];
+        long[] newTotals = new long[count];
+        System.arraycopy(days, 0, newDays, 0, insertAt);
+        System.arraycopy(totals, 0, newTotals, 0, insertAt);
+        newDays[insertAt] = day;
+        newTotals[insertAt] = cents;
+        System.arraycopy(days, insertAt, newDays, insertAt + 1, days.length - insertAt);
+        System.arraycopy(totals, insertAt, newTotals, insertAt + 1, days.length - insertAt);
+        return of(newDays, newTotals, count);
+    }
+
+    // Undoes the linear build, children before their parents
+    private long[] totals() {
+        long[] values = tree.clone();
+        for (int i = days.length; i >= 1; i--) {
+            int parent = i + (i & -i);
+            if (parent <= days.length) {
+                values[parent] -= values[i];
+            }
+        }
+        return Arrays.copyOfRange(values, 1, values.length);
+    }
+
+    // Sum of the first count days
+    private long prefix(int count) {
+        long sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Number of days before the given one
+    private int lowerBound(int day) {
+        int at = Arrays.binarySearch(days, day);
+        return at >= 0 ? at : -at - 1;
+    }
+
+    // Number of days on or before the given one
+    private int upperBound(int day) {
+        int at = Arrays.binarySearch(days, day);
+        return at >= 0 ? at + 1 : -at - 1;
+    }
+
+    /**
+     * Collects totals for days added in ascending order.
+     */
+    static final class Builder {
+
+        private int[] days = new int[8];
+        private long[] totals = new long[8];
+        private int count;
+
+        void add(int day, long cents) {
+            if (count > 0 && days[count - 1] == day) {
+                totals[count - 1] += cents;
+                return;
+            }
+            if (count == days.length) {
+                days = Arrays.copyOf(days, count * 2);
+                totals = Arrays.copyOf(totals, count * 2);
+            }
+            days[count] = day;
+            totals[count] = cents;
+            count++;
+        }
+
+        DailyFenwick build() {
+            return count == 0 ? EMPTY : of(days, totals, count);
+        }
+    }
+}
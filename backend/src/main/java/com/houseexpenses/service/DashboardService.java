@@ -2,6 +2,7 @@ package com.houseexpenses.service;
 
 import com.houseexpenses.dto.*;
 import com.houseexpenses.model.*;
+import com.houseexpenses.model.PeriodSnapshot.Totals;
 import com.houseexpenses.repository.*;
 import com.houseexpenses.util.DateUtils;
 import lombok.RequiredArgsConstructor;
@@ -11,7 +12,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.WeekFields;
@@ -28,28 +28,27 @@ public class DashboardService {
     private final BudgetRepository budgetRepository;
     private final AlertService alertService;
     private final BudgetService budgetService;
+    private final PeriodSnapshotService periodSnapshotService;
+    private final ExpenseColumnStore expenseColumnStore;
 
     @Transactional(readOnly = true)
     public DashboardDTO getSummary(UUID userId, Integer year, Integer month) {
         LocalDate referenceDate = getReferenceDateForMonth(year, month);
         LocalDate[] monthRange = DateUtils.getDateRangeForPeriod(Budget.BudgetPeriod.monthly, referenceDate);
+        Totals totals = periodTotals(userId, Budget.BudgetPeriod.monthly, monthRange);
 
-        BigDecimal totalSpending = expenseRepository.sumByUserIdAndDateRange(
-                userId, monthRange[0], monthRange[1]);
+        Money totalSpending = totals != null ? totals.getTotal() :
+                expenseColumnStore.sumByUserIdAndDateRange(userId, monthRange[0], monthRange[1]);
 
-        BigDecimal budgetLimit = budgetRepository.findByUserIdAndPeriod(userId, Budget.BudgetPeriod.monthly)
+        Money budgetLimit = Money.ofCents(budgetRepository.findByUserIdAndPeriod(userId, Budget.BudgetPeriod.monthly)
                 .stream()
-                .map(Budget::getLimitAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal utilizationPercentage = BigDecimal.ZERO;
-        if (budgetLimit.compareTo(BigDecimal.ZERO) > 0) {
-            utilizationPercentage = totalSpending
-                    .multiply(BigDecimal.valueOf(100))
-                    .divide(budgetLimit, 2, RoundingMode.HALF_UP);
-        }
+                .mapToLong(budget -> budget.getLimitAmount().cents())
+                .sum());
+
+        long utilization = budgetLimit.isPositive() ? totalSpending.basisPointsOf(budgetLimit) : 0;
 
-        List<CategorySpendingDTO> topCategories = getTopCategoriesSpending(userId, monthRange[0], monthRange[1], 5);
+        List<CategorySpendingDTO> topCategories = toCategorySpending(userId, totals != null ? categoryRows(totals) :
+                withMoneyAmounts(expenseRepository.sumByCategory(userId, monthRange[0], monthRange[1])), 5);
 
         List<ExpenseDTO> recentExpenses = expenseRepository
                 .findByUserIdAndActiveCategoryAndExpenseDateBetween(userId, monthRange[0], monthRange[1])
@@ -60,12 +59,12 @@ public class DashboardService {
         List<AlertDTO> alerts = alertService.getUnreadAlerts(userId);
         int unreadAlertCount = (int) alertService.getUnreadCount(userId);
 
-        List<PendingExpenseDTO> pendingExpenses = computePendingExpenses(userId, referenceDate);
+        List<PendingExpenseDTO> pendingExpenses = computePendingExpenses(userId, referenceDate, totals);
 
         return DashboardDTO.builder()
                 .totalSpending(totalSpending)
                 .budgetLimit(budgetLimit)
-                .utilizationPercentage(utilizationPercentage)
+                .utilizationPercentage(Money.percentage(utilization))
                 .topCategories(topCategories)
                 .recentExpenses(recentExpenses)
                 .alerts(alerts)
@@ -103,20 +102,29 @@ public class DashboardService {
         LocalDate referenceDate = getReferenceDateForDay(year, month, day);
         LocalDate[] weekRange = DateUtils.getDateRangeForPeriod(Budget.BudgetPeriod.weekly, referenceDate);
 
+        Totals totals = periodTotals(userId, Budget.BudgetPeriod.weekly, weekRange);
+        if (totals != null) {
+            List<String> labels = new ArrayList<>();
+            for (LocalDate date = weekRange[0]; !date.isAfter(weekRange[1]); date = date.plusDays(1)) {
+                labels.add(date.format(DateTimeFormatter.ofPattern("EEE")));
+            }
+            return toChartData(labels, totals);
+        }
+
         List<ChartDataDTO.DataPoint> dataPoints = new ArrayList<>();
-        BigDecimal total = BigDecimal.ZERO;
+        long totalCents = 0;
 
         for (LocalDate date = weekRange[0]; !date.isAfter(weekRange[1]); date = date.plusDays(1)) {
-            BigDecimal dayTotal = expenseRepository.sumByUserIdAndDateRange(userId, date, date);
+            Money dayTotal = expenseColumnStore.sumByUserIdAndDateRange(userId, date, date);
             dataPoints.add(ChartDataDTO.DataPoint.builder()
                     .label(date.format(DateTimeFormatter.ofPattern("EEE")))
                     .value(dayTotal)
                     .build());
-            total = total.add(dayTotal);
+            totalCents += dayTotal.cents();
         }
 
-        BigDecimal average = dataPoints.isEmpty() ? BigDecimal.ZERO :
-                total.divide(BigDecimal.valueOf(dataPoints.size()), 2, RoundingMode.HALF_UP);
+        Money total = Money.ofCents(totalCents);
+        Money average = dataPoints.isEmpty() ? Money.ZERO : total.dividedBy(dataPoints.size());
 
         return ChartDataDTO.builder()
                 .dataPoints(dataPoints)
@@ -130,8 +138,17 @@ public class DashboardService {
         LocalDate referenceDate = getReferenceDateForMonth(year, month);
         LocalDate[] monthRange = DateUtils.getDateRangeForPeriod(Budget.BudgetPeriod.monthly, referenceDate);
 
+        Totals totals = periodTotals(userId, Budget.BudgetPeriod.monthly, monthRange);
+        if (totals != null) {
+            List<String> labels = new ArrayList<>();
+            for (int week = 1; week <= totals.getBuckets().size(); week++) {
+                labels.add("Week " + week);
+            }
+            return toChartData(labels, totals);
+        }
+
         List<ChartDataDTO.DataPoint> dataPoints = new ArrayList<>();
-        BigDecimal total = BigDecimal.ZERO;
+        long totalCents = 0;
 
         LocalDate weekStart = monthRange[0];
         int weekNumber = 1;
@@ -142,19 +159,19 @@ public class DashboardService {
                 weekEnd = monthRange[1];
             }
 
-            BigDecimal weekTotal = expenseRepository.sumByUserIdAndDateRange(userId, weekStart, weekEnd);
+            Money weekTotal = expenseColumnStore.sumByUserIdAndDateRange(userId, weekStart, weekEnd);
             dataPoints.add(ChartDataDTO.DataPoint.builder()
                     .label("Week " + weekNumber)
                     .value(weekTotal)
                     .build());
-            total = total.add(weekTotal);
+            totalCents += weekTotal.cents();
 
             weekStart = weekEnd.plusDays(1);
             weekNumber++;
         }
 
-        BigDecimal average = dataPoints.isEmpty() ? BigDecimal.ZERO :
-                total.divide(BigDecimal.valueOf(dataPoints.size()), 2, RoundingMode.HALF_UP);
+        Money total = Money.ofCents(totalCents);
+        Money average = dataPoints.isEmpty() ? Money.ZERO : total.dividedBy(dataPoints.size());
 
         return ChartDataDTO.builder()
                 .dataPoints(dataPoints)
@@ -170,8 +187,21 @@ public class DashboardService {
         LocalDate now = LocalDate.now();
         LocalDate[] yearRange = DateUtils.getDateRangeForPeriod(Budget.BudgetPeriod.annual, referenceDate);
 
+        Totals totals = periodTotals(userId, Budget.BudgetPeriod.annual, yearRange);
+        if (totals != null) {
+            List<String> labels = new ArrayList<>();
+            for (int month = 1; month <= 12; month++) {
+                LocalDate monthStart = LocalDate.of(targetYear, month, 1);
+                if (targetYear == now.getYear() && monthStart.isAfter(now)) {
+                    break;
+                }
+                labels.add(monthStart.format(DateTimeFormatter.ofPattern("MMM")));
+            }
+            return toChartData(labels, totals);
+        }
+
         List<ChartDataDTO.DataPoint> dataPoints = new ArrayList<>();
-        BigDecimal total = BigDecimal.ZERO;
+        long totalCents = 0;
 
         for (int month = 1; month <= 12; month++) {
             LocalDate monthStart = LocalDate.of(targetYear, month, 1);
@@ -182,16 +212,16 @@ public class DashboardService {
                 break;
             }
 
-            BigDecimal monthTotal = expenseRepository.sumByUserIdAndDateRange(userId, monthStart, monthEnd);
+            Money monthTotal = expenseColumnStore.sumByUserIdAndDateRange(userId, monthStart, monthEnd);
             dataPoints.add(ChartDataDTO.DataPoint.builder()
                     .label(monthStart.format(DateTimeFormatter.ofPattern("MMM")))
                     .value(monthTotal)
                     .build());
-            total = total.add(monthTotal);
+            totalCents += monthTotal.cents();
         }
 
-        BigDecimal average = dataPoints.isEmpty() ? BigDecimal.ZERO :
-                total.divide(BigDecimal.valueOf(dataPoints.size()), 2, RoundingMode.HALF_UP);
+        Money total = Money.ofCents(totalCents);
+        Money average = dataPoints.isEmpty() ? Money.ZERO : total.dividedBy(dataPoints.size());
 
         return ChartDataDTO.builder()
                 .dataPoints(dataPoints)
@@ -208,34 +238,72 @@ public class DashboardService {
         return getTopCategoriesSpending(userId, dateRange[0], dateRange[1], Integer.MAX_VALUE);
     }
 
-    private List<CategorySpendingDTO> getTopCategoriesSpending(UUID userId, LocalDate startDate,
-                                                                LocalDate endDate, int limit) {
-        List<Object[]> categoryTotals = expenseRepository.sumByCategory(userId, startDate, endDate);
+    /**
+     * Totals for a period from the in-memory columns, or from the stored snapshot of a closed
+     * period when the column store is disabled. Null means neither is available.
+     */
+    private Totals periodTotals(UUID userId, Budget.BudgetPeriod period, LocalDate[] range) {
+        ExpenseColumns columns = expenseColumnStore.get(userId);
+        if (columns != null) {
+            return columns.totals(period, range[0], range[1]);
+        }
+        return period != Budget.BudgetPeriod.weekly ? periodSnapshotService.find(userId, period, range[0]) : null;
+    }
+
+    private ChartDataDTO toChartData(List<String> labels, Totals totals) {
+        List<ChartDataDTO.DataPoint> dataPoints = new ArrayList<>();
+        long totalCents = 0;
+        for (int i = 0; i < labels.size(); i++) {
+            Money value = totals.getBuckets().get(i);
+            dataPoints.add(ChartDataDTO.DataPoint.builder()
+                    .label(labels.get(i))
+                    .value(value)
+                    .build());
+            totalCents += value.cents();
+        }
+
+        Money total = Money.ofCents(totalCents);
+        Money average = dataPoints.isEmpty() ? Money.ZERO : total.dividedBy(dataPoints.size());
+
+        return ChartDataDTO.builder()
+                .dataPoints(dataPoints)
+                .total(total)
+                .average(average)
+                .build();
+    }
+
+    List<CategorySpendingDTO> getTopCategoriesSpending(UUID userId, LocalDate startDate,
+                                                        LocalDate endDate, int limit) {
+        ExpenseColumns columns = expenseColumnStore.get(userId);
+        List<Object[]> categoryTotals = columns != null
+                ? categoryRows(columns.totals(startDate, endDate, List.of(startDate)))
+                : withMoneyAmounts(expenseRepository.sumByCategory(userId, startDate, endDate));
+        return toCategorySpending(userId, categoryTotals, limit);
+    }
+
+    private List<CategorySpendingDTO> toCategorySpending(UUID userId, List<Object[]> categoryTotals, int limit) {
         Map<UUID, Category> categoriesMap = categoryRepository.findByUserIdAndIsActiveTrueOrderByDisplayOrder(userId)
                 .stream()
                 .collect(Collectors.toMap(Category::getId, c -> c));
 
-        Map<UUID, BigDecimal> budgetLimits = budgetRepository.findByUserIdAndPeriod(userId, Budget.BudgetPeriod.monthly)
+        Map<UUID, Money> budgetLimits = budgetRepository.findByUserIdAndPeriod(userId, Budget.BudgetPeriod.monthly)
                 .stream()
                 .filter(b -> b.getSubCategory() == null)
                 .collect(Collectors.toMap(b -> b.getCategory().getId(), Budget::getLimitAmount,
                         (existing, replacement) -> existing));
 
-        BigDecimal totalSpending = categoryTotals.stream()
-                .map(row -> (BigDecimal) row[1])
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Money totalSpending = Money.ofCents(categoryTotals.stream()
+                .mapToLong(row -> ((Money) row[1]).cents())
+                .sum());
 
         return categoryTotals.stream()
                 .map(row -> {
                     UUID categoryId = (UUID) row[0];
-                    BigDecimal amount = (BigDecimal) row[1];
+                    Money amount = (Money) row[1];
                     Category category = categoriesMap.get(categoryId);
 
-                    BigDecimal budgetLimit = budgetLimits.getOrDefault(categoryId, BigDecimal.ZERO);
-                    BigDecimal percentage = totalSpending.compareTo(BigDecimal.ZERO) > 0 ?
-                            amount.multiply(BigDecimal.valueOf(100))
-                                    .divide(totalSpending, 2, RoundingMode.HALF_UP) :
-                            BigDecimal.ZERO;
+                    Money budgetLimit = budgetLimits.getOrDefault(categoryId, Money.ZERO);
+                    long percentage = totalSpending.isPositive() ? amount.basisPointsOf(totalSpending) : 0;
 
                     return CategorySpendingDTO.builder()
                             .categoryId(categoryId)
@@ -244,7 +312,7 @@ public class DashboardService {
                             .color(category != null ? category.getColor() : "#95A5A6")
                             .amount(amount)
                             .budgetLimit(budgetLimit)
-                            .percentage(percentage)
+                            .percentage(Money.percentage(percentage))
                             .build();
                 })
                 .sorted((a, b) -> b.getAmount().compareTo(a.getAmount()))
@@ -252,21 +320,28 @@ public class DashboardService {
                 .collect(Collectors.toList());
     }
 
-    private List<PendingExpenseDTO> computePendingExpenses(UUID userId, LocalDate referenceDate) {
+    List<PendingExpenseDTO> computePendingExpenses(UUID userId, LocalDate referenceDate) {
+        LocalDate[] monthRange = DateUtils.getDateRangeForPeriod(Budget.BudgetPeriod.monthly, referenceDate);
+        return computePendingExpenses(userId, referenceDate,
+                periodTotals(userId, Budget.BudgetPeriod.monthly, monthRange));
+    }
+
+    private List<PendingExpenseDTO> computePendingExpenses(UUID userId, LocalDate referenceDate, Totals monthTotals) {
         List<Category> categories = categoryRepository.findByUserIdWithSubCategories(userId);
 
         // Compute date ranges for monthly and annual
         LocalDate[] monthRange = DateUtils.getDateRangeForPeriod(Budget.BudgetPeriod.monthly, referenceDate);
         LocalDate[] yearRange = DateUtils.getDateRangeForPeriod(Budget.BudgetPeriod.annual, referenceDate);
+        Totals yearTotals = periodTotals(userId, Budget.BudgetPeriod.annual, yearRange);
 
         // Get all subcategory payment summaries for both monthly and annual ranges in bulk
-        Map<UUID, Object[]> monthlyPayments = expenseRepository
-                .sumBySubCategoryGrouped(userId, monthRange[0], monthRange[1])
+        Map<UUID, Object[]> monthlyPayments = (monthTotals != null ? subCategoryRows(monthTotals) :
+                withMoneyAmounts(expenseRepository.sumBySubCategoryGrouped(userId, monthRange[0], monthRange[1])))
                 .stream()
                 .collect(Collectors.toMap(row -> (UUID) row[0], row -> row));
 
-        Map<UUID, Object[]> annualPayments = expenseRepository
-                .sumBySubCategoryGrouped(userId, yearRange[0], yearRange[1])
+        Map<UUID, Object[]> annualPayments = (yearTotals != null ? subCategoryRows(yearTotals) :
+                withMoneyAmounts(expenseRepository.sumBySubCategoryGrouped(userId, yearRange[0], yearRange[1])))
                 .stream()
                 .collect(Collectors.toMap(row -> (UUID) row[0], row -> row));
 
@@ -279,32 +354,29 @@ public class DashboardService {
             for (SubCategory subCategory : category.getSubCategories()) {
                 if (!subCategory.getIsActive()) continue;
 
-                boolean isFixed = subCategory.getFixedAmount() != null && subCategory.getFixedAmount() > 0;
+                boolean isFixed = subCategory.getFixedAmount() != null && subCategory.getFixedAmount().isPositive();
                 boolean isMandatory = isFixed || Boolean.TRUE.equals(subCategory.getIsMandatory());
 
                 if (!isMandatory) continue;
 
                 // Determine expected amount
-                BigDecimal expectedAmount;
+                Money expectedAmount;
                 if (isFixed) {
-                    expectedAmount = BigDecimal.valueOf(subCategory.getFixedAmount());
+                    expectedAmount = subCategory.getFixedAmount();
                 } else {
                     // Non-fixed mandatory: use budget limit as expected
-                    Double bl = subCategory.getBudgetLimit();
-                    expectedAmount = bl != null ? BigDecimal.valueOf(bl) : BigDecimal.ZERO;
+                    Money bl = subCategory.getBudgetLimit();
+                    expectedAmount = bl != null ? bl : Money.ZERO;
                 }
 
-                // For fixed expenses, skip if no amount set
-                if (isFixed && expectedAmount.compareTo(BigDecimal.ZERO) == 0) continue;
-
                 // Check payments from grouped query
                 Object[] paymentData = relevantPayments.get(subCategory.getId());
-                BigDecimal paidAmount = BigDecimal.ZERO;
+                Money paidAmount = Money.ZERO;
                 long paymentCount = 0;
                 LocalDate lastPaidDate = null;
 
                 if (paymentData != null) {
-                    paidAmount = (BigDecimal) paymentData[1];
+                    paidAmount = (Money) paymentData[1];
                     paymentCount = (Long) paymentData[2];
                     lastPaidDate = (LocalDate) paymentData[3];
                 }
@@ -313,10 +385,10 @@ public class DashboardService {
                 // For mandatory non-fixed, check if any payment was made
                 boolean isPaid;
                 if (isFixed) {
-                    isPaid = paidAmount.compareTo(expectedAmount) >= 0;
+                    isPaid = paidAmount.isAtLeast(expectedAmount);
                 } else {
                     // Mandatory non-fixed: consider paid if any payment was made
-                    isPaid = paidAmount.compareTo(BigDecimal.ZERO) > 0;
+                    isPaid = paidAmount.isPositive();
                 }
 
                 if (isPaid) continue;
@@ -341,6 +413,31 @@ public class DashboardService {
         return pendingExpenses;
     }
 
+    // SQL sums come back as BigDecimal; callers read the amount in column 1 as Money
+    private static List<Object[]> withMoneyAmounts(List<Object[]> rows) {
+        List<Object[]> converted = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Object[] copy = row.clone();
+            copy[1] = Money.of((BigDecimal) row[1]);
+            converted.add(copy);
+        }
+        return converted;
+    }
+
+    // Period totals in the row shapes of the sumByCategory and sumBySubCategoryGrouped queries
+    private static List<Object[]> categoryRows(Totals totals) {
+        List<Object[]> rows = new ArrayList<>();
+        totals.getCategories().forEach((id, amount) -> rows.add(new Object[]{id, amount}));
+        return rows;
+    }
+
+    private static List<Object[]> subCategoryRows(Totals totals) {
+        List<Object[]> rows = new ArrayList<>();
+        totals.getSubCategories().forEach((id, total) ->
+                rows.add(new Object[]{id, total.getAmount(), total.getCount(), total.getLastDate()}));
+        return rows;
+    }
+
     private ExpenseDTO mapExpenseToDTO(Expense expense) {
         return ExpenseDTO.builder()
                 .id(expense.getId())
@@ -0,0 +1,354 @@
+package com.houseexpenses.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.houseexpenses.config.CacheInvalidationEvent;
+import com.houseexpenses.config.CacheInvalidationEvent.Topic;
+import com.houseexpenses.model.Expense;
+import com.houseexpenses.model.Money;
+import com.houseexpenses.repository.CategoryRepository;
+import com.houseexpenses.repository.ExpenseRepository;
+import com.houseexpenses.service.ExpenseSegmentFiles.Segment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-user {@link ExpenseColumns}, loaded on first use and evicted least recently used once
+ * their estimated size exceeds the memory budget. This instance's expense writes are applied
+ * as copy-on-write changes after commit; changes are keyed by expense id, so one that races
+ * with a load is harmless. Changes made by other instances evict the user when cache
+ * invalidation is enabled; either way a user is reloaded once the TTL since their load passes,
+ * which bounds how stale another instance's writes can leave them.
+ * <p>
+ * Date range sums are answered from resident users only, with this transaction's uncommitted
+ * changes applied on top so they match what SQL would see; cold users go to SQL.
+ * <p>
+ * With a segment directory configured, changed users are written to segment files
+ * periodically and on shutdown, with a watermark taken from when the user was loaded, since
+ * other instances' writes after that are not in the columns. A miss then maps the user's
+ * segment, replays the expenses updated since its watermark and drops rows whose ids are no longer in the database, since
+ * deletes leave nothing to replay. If the database still has rows the segment lacks, the user
+ * is loaded from the database.
+ */
+@Component
+@Slf4j
+public class ExpenseColumnStore implements DisposableBean {
+
+    private static final String CACHE_NAME = "expenseColumns";
+
+    // Rough heap cost of one row across the arrays and range index, including its id
+    private static final int ROW_BYTES = 96;
+    private static final int DICTIONARY_ENTRY_BYTES = 48;
+
+    // Covers commit lag and clock skew between instances stamping updated_at
+    private static final Duration WATERMARK_MARGIN = Duration.ofMinutes(5);
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryRepository categoryRepository;
+    private final ExpenseSegmentFiles segmentFiles;
+    private final boolean enabled;
+    private final Clock clock;
+    private final Cache<UUID, Resident> columns;
+    private final Set<UUID> unsaved = ConcurrentHashMap.newKeySet();
+    // Transaction resource key for the changes waiting on commit
+    private final Object pendingKey = new Object();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer segmentLoads;
+    private final Timer databaseLoads;
+
+    // The columns with the time their load started; changes applied since carry it over
+    private record Resident(ExpenseColumns columns, Instant loadedAt) {
+    }
+
+    @Autowired
+    public ExpenseColumnStore(ExpenseRepository expenseRepository, CategoryRepository categoryRepository,
+                              ExpenseSegmentFiles segmentFiles, MeterRegistry meterRegistry,
+                              @Value("${app.expense-columns.enabled:true}") boolean enabled,
+                              @Value("${app.expense-columns.max-size:134217728}") long maxSize,
+                              @Value("${app.expense-columns.ttl:600000}") long ttl) {
+        this(expenseRepository, categoryRepository, segmentFiles, meterRegistry, enabled, maxSize, ttl,
+                Clock.systemUTC());
+    }
+
+    ExpenseColumnStore(ExpenseRepository expenseRepository, CategoryRepository categoryRepository,
+                       ExpenseSegmentFiles segmentFiles, MeterRegistry meterRegistry, boolean enabled,
+                       long maxSize, long ttl, Clock clock) {
+        this.expenseRepository = expenseRepository;
+        this.categoryRepository = categoryRepository;
+        this.segmentFiles = segmentFiles;
+        this.enabled = enabled;
+        this.clock = clock;
+        this.columns = Caffeine.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((UUID userId, Resident value) -> value.columns().size() * ROW_BYTES
+                        + value.columns().dictionarySize() * DICTIONARY_ENTRY_BYTES)
+                // Counted from the load: this instance's own changes must not keep an entry alive
+                .expireAfter(new Expiry<UUID, Resident>() {
+                    @Override
+                    public long expireAfterCreate(UUID userId, Resident value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(ttl);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID userId, Resident value, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID userId, Resident value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.hits = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "hit");
+        this.misses = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "miss");
+        Gauge.builder("cache.size", columns, Cache::estimatedSize)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        this.segmentLoads = meterRegistry.timer("expense.columns.load", "source", "segment");
+        this.databaseLoads = meterRegistry.timer("expense.columns.load", "source", "database");
+    }
+
+    /**
+     * The user's columns, loading them within the caller's transaction if needed, or null when
+     * the store is disabled.
+     */
+    ExpenseColumns get(UUID userId) {
+        if (!enabled) {
+            return null;
+        }
+        Resident existing = columns.getIfPresent(userId);
+        if (existing != null) {
+            hits.increment();
+            return existing.columns();
+        }
+        misses.increment();
+        // Concurrent callers wait for one load; changes committed meanwhile are applied after it
+        return columns.get(userId, this::load).columns();
+    }
+
+    public Money sumByUserIdAndDateRange(UUID userId, LocalDate startDate, LocalDate endDate) {
+        ExpenseColumns value = resident(userId);
+        return value != null ? value.sum(startDate, endDate)
+                : Money.of(expenseRepository.sumByUserIdAndDateRange(userId, startDate, endDate));
+    }
+
+    public Money sumByCategoryAndDateRange(UUID userId, UUID categoryId, LocalDate startDate, LocalDate endDate) {
+        ExpenseColumns value = resident(userId);
+        return value != null ? value.sumByCategory(categoryId, startDate, endDate)
+                : Money.of(expenseRepository.sumByCategoryAndDateRange(userId, categoryId, startDate, endDate));
+    }
+
+    public Money sumBySubCategoryAndDateRange(UUID userId, UUID subCategoryId,
+                                              LocalDate startDate, LocalDate endDate) {
+        ExpenseColumns value = resident(userId);
+        return value != null ? value.sumBySubCategory(subCategoryId, startDate, endDate)
+                : Money.of(expenseRepository.sumBySubCategoryAndDateRange(userId, subCategoryId, startDate, endDate));
+    }
+
+    public void upsert(Expense expense) {
+        UUID categoryId = expense.getCategory().getId();
+        boolean categoryIsActive = Boolean.TRUE.equals(expense.getCategory().getIsActive());
+        UUID subCategoryId = expense.getSubCategory() != null ? expense.getSubCategory().getId() : null;
+        applyAfterCommit(expense.getUserId(), value -> value.withExpense(expense.getId(), expense.getExpenseDate(),
+                expense.getAmount(), categoryId, categoryIsActive, subCategoryId));
+    }
+
+    public void remove(UUID userId, UUID expenseId) {
+        applyAfterCommit(userId, value -> value.withoutExpense(expenseId));
+    }
+
+    public void deactivateCategory(UUID userId, UUID categoryId) {
+        applyAfterCommit(userId, value -> value.withCategoryActive(categoryId, false));
+    }
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (!event.covers(Topic.expenses) && !event.covers(Topic.categories)) {
+            return;
+        }
+        if (event.userId() == null) {
+            columns.invalidateAll();
+        } else {
+            columns.invalidate(event.userId());
+        }
+    }
+
+    /**
+     * Writes the segments of users changed or loaded since the last flush.
+     */
+    @Scheduled(fixedDelayString = "${app.expense-columns.segment-flush-interval:300000}")
+    public void flushSegments() {
+        if (!enabled || !segmentFiles.isEnabled() || unsaved.isEmpty()) {
+            return;
+        }
+        int written = 0;
+        for (UUID userId : List.copyOf(unsaved)) {
+            unsaved.remove(userId);
+            Resident value = columns.getIfPresent(userId);
+            if (value == null) {
+                continue;
+            }
+            // The columns reflect every write stamped before their load, but only this
+            // instance's writes after it
+            Instant watermark = value.loadedAt().minus(WATERMARK_MARGIN);
+            try {
+                segmentFiles.write(userId, value.columns(), watermark);
+                written++;
+            } catch (IOException ex) {
+                unsaved.add(userId);
+                log.warn("Could not write the expense segment for user {}", userId, ex);
+            }
+        }
+        if (written > 0) {
+            log.debug("Wrote {} expense segments", written);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flushSegments();
+    }
+
+    // The resident columns as this transaction sees them, or null when the user is not loaded
+    private ExpenseColumns resident(UUID userId) {
+        if (!enabled) {
+            return null;
+        }
+        Resident resident = columns.getIfPresent(userId);
+        if (resident == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        ExpenseColumns value = resident.columns();
+        Map<UUID, List<UnaryOperator<ExpenseColumns>>> pending = pendingChanges(false);
+        List<UnaryOperator<ExpenseColumns>> changes = pending != null ? pending.get(userId) : null;
+        if (changes != null) {
+            value = value.indexed();
+            for (UnaryOperator<ExpenseColumns> change : changes) {
+                value = change.apply(value);
+            }
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, List<UnaryOperator<ExpenseColumns>>> pendingChanges(boolean create) {
+        var pending = (Map<UUID, List<UnaryOperator<ExpenseColumns>>>)
+                TransactionSynchronizationManager.getResource(pendingKey);
+        if (pending == null && create) {
+            pending = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(pendingKey, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+                }
+            });
+        }
+        return pending;
+    }
+
+    private Resident load(UUID userId) {
+        Instant loadedAt = clock.instant();
+        long start = System.nanoTime();
+        ExpenseColumns value = segmentFiles.isEnabled() ? restore(userId) : null;
+        Timer timer = segmentLoads;
+        if (value == null) {
+            value = ExpenseColumns.of(expenseRepository.findColumnsByUserId(userId));
+            timer = databaseLoads;
+            unsaved.add(userId);
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Resident(value, loadedAt);
+    }
+
+    private ExpenseColumns restore(UUID userId) {
+        Segment segment = segmentFiles.read(userId);
+        if (segment == null) {
+            return null;
+        }
+        List<Object[]> changed = expenseRepository.findColumnsByUserIdUpdatedAfter(
+                userId, segment.watermark().atOffset(ZoneOffset.UTC));
+        // Past this, replaying row by row costs more than a full load
+        if (changed.size() > segment.columns().size() / 4 + 16) {
+            return null;
+        }
+        ExpenseColumns value = segment.columns();
+        for (Object[] row : changed) {
+            value = value.withRow(row);
+        }
+        for (Object[] row : categoryRepository.findActiveFlagsByUserId(userId)) {
+            value = value.withCategoryActive((UUID) row[0], Boolean.TRUE.equals(row[1]));
+        }
+        // Deleted rows are not among the changed ones, so compare ids rather than counts
+        Set<UUID> live = new HashSet<>(expenseRepository.findIdsByUserId(userId));
+        value = value.retainAll(live);
+        if (value.size() != live.size()) {
+            log.debug("Expense segment for user {} is missing rows, loading from the database", userId);
+            return null;
+        }
+        if (value != segment.columns()) {
+            unsaved.add(userId);
+        }
+        return value;
+    }
+
+    private void applyAfterCommit(UUID userId, UnaryOperator<ExpenseColumns> change) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges(true).computeIfAbsent(userId, id -> new ArrayList<>()).add(change);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, change);
+                }
+            });
+        } else {
+            apply(userId, change);
+        }
+    }
+
+    private void apply(UUID userId, UnaryOperator<ExpenseColumns> change) {
+        // Absent users are loaded from the database on the next read, which already has the change
+        if (columns.asMap().computeIfPresent(userId, (id, value) ->
+                new Resident(change.apply(value.columns()), value.loadedAt())) != null) {
+            unsaved.add(userId);
+        }
+    }
+}
@@ -0,0 +1,586 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.model.Budget.BudgetPeriod;
+import com.houseexpenses.model.Money;
+import com.houseexpenses.model.PeriodSnapshot.SubCategoryTotal;
+import com.houseexpenses.model.PeriodSnapshot.Totals;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One user's expenses as parallel primitive arrays sorted by day: epoch day, amount in cents,
+ * and category and subcategory dictionary indexes (-1 for none). Instances are immutable;
+ * changes return a copy, so readers never see a half-applied write.
+ * <p>
+ * Date range sums go through {@link DailyFenwick} trees for the total and for each category
+ * and subcategory, built on the first range sum. Once built, changes carry the trees over and
+ * replace only the ones they touch. A change therefore costs a copy of the columns, linear in
+ * the user's rows, plus a copy of each touched tree, linear in its days; only reads are
+ * logarithmic.
+ */
+final class ExpenseColumns {
+
+    private static final short NONE = -1;
+
+    private final UUID[] ids;
+    private final int[] days;
+    private final long[] cents;
+    private final short[] categories;
+    private final short[] subCategories;
+    private final UUID[] categoryIds;
+    private final boolean[] categoryActive;
+    private final UUID[] subCategoryIds;
+    // Set once built, or before a derived copy is published
+    private volatile RangeIndex rangeIndex;
+
+    // Trees over active categories for the total and subcategories, and all rows per category
+    private record RangeIndex(DailyFenwick total, DailyFenwick[] categories, DailyFenwick[] subCategories) {
+    }
+
+    private ExpenseColumns(UUID[] ids, int[] days, long[] cents, short[] categories, short[] subCategories,
+                           UUID[] categoryIds, boolean[] categoryActive, UUID[] subCategoryIds) {
+        this.ids = ids;
+        this.days = days;
+        this.cents = cents;
+        this.categories = categories;
+        this.subCategories = subCategories;
+        this.categoryIds = categoryIds;
+        this.categoryActive = categoryActive;
+        this.subCategoryIds = subCategoryIds;
+    }
+
+    /**
+     * Builds the columns from rows of (id, date, amount, category id, category active,
+     * subcategory id) ordered by date.
+     */
+    static ExpenseColumns of(List<Object[]> rows) {
+        int size = rows.size();
+        UUID[] ids = new UUID[size];
+        int[] days = new int[size];
+        long[] cents = new long[size];
+        short[] categories = new short[size];
+        short[] subCategories = new short[size];
+        Map<UUID, Short> categoryIndex = new HashMap<>();
+        Map<UUID, Short> subCategoryIndex = new HashMap<>();
+        List<UUID> categoryIds = new ArrayList<>();
+        List<Boolean> categoryActive = new ArrayList<>();
+        List<UUID> subCategoryIds = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            Object[] row = rows.get(i);
+            ids[i] = (UUID) row[0];
+            days[i] = (int) ((LocalDate) row[1]).toEpochDay();
+            cents[i] = ((Money) row[2]).cents();
+            categories[i] = categoryIndex.computeIfAbsent((UUID) row[3], id -> {
+                categoryIds.add(id);
+                categoryActive.add(Boolean.TRUE.equals(row[4]));
+                return index(categoryIds.size() - 1);
+            });
+            subCategories[i] = row[5] == null ? NONE : subCategoryIndex.computeIfAbsent((UUID) row[5], id -> {
+                subCategoryIds.add(id);
+                return index(subCategoryIds.size() - 1);
+            });
+        }
+
+        boolean[] active = new boolean[categoryActive.size()];
+        for (int i = 0; i < active.length; i++) {
+            active[i] = categoryActive.get(i);
+        }
+        return new ExpenseColumns(ids, days, cents, categories, subCategories,
+                categoryIds.toArray(UUID[]::new), active, subCategoryIds.toArray(UUID[]::new));
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    int dictionarySize() {
+        return categoryIds.length + subCategoryIds.length;
+    }
+
+    /**
+     * Adds the expense, replacing any row with the same id, so applying a change twice is harmless.
+     * Finding the row is a linear scan of the ids. An update that keeps the day copies the amount
+     * and dictionary columns in place of the row; anything else removes and inserts, copying
+     * every column.
+     */
+    ExpenseColumns withExpense(UUID id, LocalDate date, Money amount, UUID categoryId,
+                               boolean categoryIsActive, UUID subCategoryId) {
+        UUID[] newCategoryIds = categoryIds;
+        boolean[] newCategoryActive = categoryActive;
+        int category = indexOf(categoryIds, categoryId);
+        if (category < 0) {
+            category = newCategoryIds.length;
+            newCategoryIds = Arrays.copyOf(newCategoryIds, category + 1);
+            newCategoryIds[category] = categoryId;
+            newCategoryActive = Arrays.copyOf(newCategoryActive, category + 1);
+            newCategoryActive[category] = categoryIsActive;
+        }
+
+        UUID[] newSubCategoryIds = subCategoryIds;
+        int subCategory = NONE;
+        if (subCategoryId != null) {
+            subCategory = indexOf(subCategoryIds, subCategoryId);
+            if (subCategory < 0) {
+                subCategory = newSubCategoryIds.length;
+                newSubCategoryIds = Arrays.copyOf(newSubCategoryIds, subCategory + 1);
+                newSubCategoryIds[subCategory] = subCategoryId;
+            }
+        }
+
+        int day = (int) date.toEpochDay();
+        long amountCents = amount.cents();
+        int row = indexOf(ids, id);
+        if (row >= 0 && days[row] == day) {
+            return withRowReplaced(row, amountCents, category, subCategory,
+                    newCategoryIds, newCategoryActive, newSubCategoryIds);
+        }
+
+        ExpenseColumns base = row < 0 ? this : withoutRow(row);
+        int at = base.upperBound(day);
+        int size = base.ids.length;
+        ExpenseColumns result = new ExpenseColumns(
+                insert(base.ids, new UUID[size + 1], at, id),
+                insert(base.days, at, day),
+                insert(base.cents, at, amountCents),
+                insert(base.categories, at, index(category)),
+                insert(base.subCategories, at, index(subCategory)),
+                newCategoryIds, newCategoryActive, newSubCategoryIds);
+        result.rangeIndex = result.adjust(base.rangeIndex, day, amountCents, category, subCategory);
+        return result;
+    }
+
+    ExpenseColumns withoutExpense(UUID id) {
+        int row = indexOf(ids, id);
+        return row < 0 ? this : withoutRow(row);
+    }
+
+    private ExpenseColumns withoutRow(int row) {
+        ExpenseColumns result = new ExpenseColumns(remove(ids, new UUID[ids.length - 1], row), remove(days, row),
+                remove(cents, row), remove(categories, row), remove(subCategories, row),
+                categoryIds, categoryActive, subCategoryIds);
+        result.rangeIndex = result.adjust(rangeIndex, days[row], -cents[row], categories[row], subCategories[row]);
+        return result;
+    }
+
+    // The row stays where it is, so the id and day columns are shared with this instance
+    private ExpenseColumns withRowReplaced(int row, long amountCents, int category, int subCategory,
+                                           UUID[] newCategoryIds, boolean[] newCategoryActive,
+                                           UUID[] newSubCategoryIds) {
+        long[] newCents = cents.clone();
+        newCents[row] = amountCents;
+        short[] newCategories = categories.clone();
+        newCategories[row] = index(category);
+        short[] newSubCategories = subCategories.clone();
+        newSubCategories[row] = index(subCategory);
+        ExpenseColumns result = new ExpenseColumns(ids, days, newCents, newCategories, newSubCategories,
+                newCategoryIds, newCategoryActive, newSubCategoryIds);
+
+        int day = days[row];
+        if (categories[row] == category && subCategories[row] == subCategory) {
+            result.rangeIndex = result.adjust(rangeIndex, day, amountCents - cents[row], category, subCategory);
+        } else {
+            RangeIndex removed = result.adjust(rangeIndex, day, -cents[row], categories[row], subCategories[row]);
+            result.rangeIndex = result.adjust(removed, day, amountCents, category, subCategory);
+        }
+        return result;
+    }
+
+    /**
+     * Keeps only the rows whose id is in the given set, in one copy however many rows go.
+     */
+    ExpenseColumns retainAll(Set<UUID> retained) {
+        int[] kept = new int[ids.length];
+        int size = 0;
+        for (int row = 0; row < ids.length; row++) {
+            if (retained.contains(ids[row])) {
+                kept[size++] = row;
+            }
+        }
+        if (size == ids.length) {
+            return this;
+        }
+        UUID[] newIds = new UUID[size];
+        int[] newDays = new int[size];
+        long[] newCents = new long[size];
+        short[] newCategories = new short[size];
+        short[] newSubCategories = new short[size];
+        for (int i = 0; i < size; i++) {
+            int row = kept[i];
+            newIds[i] = ids[row];
+            newDays[i] = days[row];
+            newCents[i] = cents[row];
+            newCategories[i] = categories[row];
+            newSubCategories[i] = subCategories[row];
+        }
+        // The range index is rebuilt on the next range sum
+        return new ExpenseColumns(newIds, newDays, newCents, newCategories, newSubCategories,
+                categoryIds, categoryActive, subCategoryIds);
+    }
+
+    /**
+     * Applies a row in the shape {@link #of} reads.
+     */
+    ExpenseColumns withRow(Object[] row) {
+        return withExpense((UUID) row[0], (LocalDate) row[1], (Money) row[2], (UUID) row[3],
+                Boolean.TRUE.equals(row[4]), (UUID) row[5]);
+    }
+
+    ExpenseColumns withCategoryActive(UUID categoryId, boolean isActive) {
+        int category = indexOf(categoryIds, categoryId);
+        if (category < 0 || categoryActive[category] == isActive) {
+            return this;
+        }
+        boolean[] active = categoryActive.clone();
+        active[category] = isActive;
+        // Leaves the range index to be rebuilt, since the category moves in or out of every total
+        return new ExpenseColumns(ids, days, cents, categories, subCategories, categoryIds, active, subCategoryIds);
+    }
+
+    /**
+     * Builds the range index now, so changes applied to this instance carry it over.
+     */
+    ExpenseColumns indexed() {
+        rangeIndex();
+        return this;
+    }
+
+    Money sum(LocalDate startDate, LocalDate endDate) {
+        return Money.ofCents(rangeIndex().total().sum((int) startDate.toEpochDay(), (int) endDate.toEpochDay()));
+    }
+
+    Money sumByCategory(UUID categoryId, LocalDate startDate, LocalDate endDate) {
+        int category = indexOf(categoryIds, categoryId);
+        if (category < 0 || !categoryActive[category]) {
+            return Money.ZERO;
+        }
+        return Money.ofCents(rangeIndex().categories()[category]
+                .sum((int) startDate.toEpochDay(), (int) endDate.toEpochDay()));
+    }
+
+    Money sumBySubCategory(UUID subCategoryId, LocalDate startDate, LocalDate endDate) {
+        int subCategory = indexOf(subCategoryIds, subCategoryId);
+        if (subCategory < 0) {
+            return Money.ZERO;
+        }
+        return Money.ofCents(rangeIndex().subCategories()[subCategory]
+                .sum((int) startDate.toEpochDay(), (int) endDate.toEpochDay()));
+    }
+
+    /**
+     * Totals over active categories between two dates, bucketed the way the dashboard charts
+     * are: days for weekly, weeks from the 1st for monthly and months for annual.
+     */
+    Totals totals(BudgetPeriod period, LocalDate startDate, LocalDate endDate) {
+        List<LocalDate> bucketStarts = new ArrayList<>();
+        LocalDate bucketStart = startDate;
+        while (!bucketStart.isAfter(endDate)) {
+            bucketStarts.add(bucketStart);
+            bucketStart = switch (period) {
+                case weekly -> bucketStart.plusDays(1);
+                case monthly -> bucketStart.plusDays(7);
+                case annual -> bucketStart.plusMonths(1);
+            };
+        }
+        return totals(startDate, endDate, bucketStarts);
+    }
+
+    Totals totals(LocalDate startDate, LocalDate endDate, List<LocalDate> bucketStarts) {
+        int bucketCount = bucketStarts.size();
+        int[] bucketBounds = new int[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            bucketBounds[i] = (int) bucketStarts.get(i).toEpochDay();
+        }
+        long[] buckets = new long[bucketCount];
+        long[] categorySums = new long[categoryIds.length];
+        boolean[] categorySeen = new boolean[categoryIds.length];
+        long[] subCategorySums = new long[subCategoryIds.length];
+        long[] subCategoryCounts = new long[subCategoryIds.length];
+        int[] subCategoryLastDays = new int[subCategoryIds.length];
+        long total = 0;
+
+        int end = upperBound((int) endDate.toEpochDay());
+        int bucket = 0;
+        for (int row = lowerBound((int) startDate.toEpochDay()); row < end; row++) {
+            int category = categories[row];
+            if (!categoryActive[category]) {
+                continue;
+            }
+            int day = days[row];
+            long amount = cents[row];
+            while (bucket + 1 < bucketCount && day >= bucketBounds[bucket + 1]) {
+                bucket++;
+            }
+            buckets[bucket] += amount;
+            total += amount;
+            categorySums[category] += amount;
+            categorySeen[category] = true;
+            int subCategory = subCategories[row];
+            if (subCategory != NONE) {
+                subCategorySums[subCategory] += amount;
+                subCategoryCounts[subCategory]++;
+                subCategoryLastDays[subCategory] = day;
+            }
+        }
+
+        List<Money> bucketTotals = new ArrayList<>(bucketCount);
+        for (long amount : buckets) {
+            bucketTotals.add(Money.ofCents(amount));
+        }
+        Map<UUID, Money> categoryTotals = new HashMap<>();
+        for (int i = 0; i < categorySums.length; i++) {
+            if (categorySeen[i]) {
+                categoryTotals.put(categoryIds[i], Money.ofCents(categorySums[i]));
+            }
+        }
+        Map<UUID, SubCategoryTotal> subCategoryTotals = new HashMap<>();
+        for (int i = 0; i < subCategorySums.length; i++) {
+            if (subCategoryCounts[i] > 0) {
+                subCategoryTotals.put(subCategoryIds[i], new SubCategoryTotal(Money.ofCents(subCategorySums[i]),
+                        subCategoryCounts[i], LocalDate.ofEpochDay(subCategoryLastDays[i])));
+            }
+        }
+        return new Totals(Money.ofCents(total), bucketTotals, categoryTotals, subCategoryTotals);
+    }
+
+    private RangeIndex rangeIndex() {
+        RangeIndex index = rangeIndex;
+        if (index == null) {
+            // Racing builders produce equal indexes, so either may win
+            index = buildRangeIndex();
+            rangeIndex = index;
+        }
+        return index;
+    }
+
+    private RangeIndex buildRangeIndex() {
+        DailyFenwick.Builder total = new DailyFenwick.Builder();
+        DailyFenwick.Builder[] byCategory = new DailyFenwick.Builder[categoryIds.length];
+        DailyFenwick.Builder[] bySubCategory = new DailyFenwick.Builder[subCategoryIds.length];
+        for (int row = 0; row < ids.length; row++) {
+            int category = categories[row];
+            if (byCategory[category] == null) {
+                byCategory[category] = new DailyFenwick.Builder();
+            }
+            byCategory[category].add(days[row], cents[row]);
+            if (!categoryActive[category]) {
+                continue;
+            }
+            total.add(days[row], cents[row]);
+            int subCategory = subCategories[row];
+            if (subCategory != NONE) {
+                if (bySubCategory[subCategory] == null) {
+                    bySubCategory[subCategory] = new DailyFenwick.Builder();
+                }
+                bySubCategory[subCategory].add(days[row], cents[row]);
+            }
+        }
+        return new RangeIndex(total.build(), build(byCategory), build(bySubCategory));
+    }
+
+    private static DailyFenwick[] build(DailyFenwick.Builder[] builders) {
+        DailyFenwick[] trees = new DailyFenwick[builders.length];
+        for (int i = 0; i < builders.length; i++) {
+            trees[i] = builders[i] == null ? DailyFenwick.EMPTY : builders[i].build();
+        }
+        return trees;
+    }
+
+    // The index with one row's amount added, sized to this instance's dictionaries
+    private RangeIndex adjust(RangeIndex index, int day, long amount, int category, int subCategory) {
+        if (index == null) {
+            return null;
+        }
+        DailyFenwick[] byCategory = grow(index.categories(), categoryIds.length);
+        DailyFenwick[] bySubCategory = grow(index.subCategories(), subCategoryIds.length);
+        byCategory[category] = byCategory[category].plus(day, amount);
+        DailyFenwick total = index.total();
+        if (categoryActive[category]) {
+            total = total.plus(day, amount);
+            if (subCategory != NONE) {
+                bySubCategory[subCategory] = bySubCategory[subCategory].plus(day, amount);
+            }
+        }
+        return new RangeIndex(total, byCategory, bySubCategory);
+    }
+
+    private static DailyFenwick[] grow(DailyFenwick[] trees, int length) {
+        DailyFenwick[] grown = Arrays.copyOf(trees, length);
+        Arrays.fill(grown, trees.length, length, DailyFenwick.EMPTY);
+        return grown;
+    }
+
+    int encodedSize() {
+        return 3 * Integer.BYTES
+                + categoryIds.length * (2 * Long.BYTES + 1)
+                + subCategoryIds.length * 2 * Long.BYTES
+                + ids.length * (2 * Long.BYTES + Integer.BYTES + Long.BYTES + 2 * Short.BYTES);
+    }
+
+    /**
+     * Writes the dictionaries, then each column in turn; {@link #decode} reads them back.
+     */
+    void encode(ByteBuffer buffer) {
+        buffer.putInt(ids.length).putInt(categoryIds.length).putInt(subCategoryIds.length);
+        for (int i = 0; i < categoryIds.length; i++) {
+            putUuid(buffer, categoryIds[i]);
+            buffer.put((byte) (categoryActive[i] ? 1 : 0));
+        }
+        for (UUID subCategoryId : subCategoryIds) {
+            putUuid(buffer, subCategoryId);
+        }
+        for (UUID id : ids) {
+            putUuid(buffer, id);
+        }
+        buffer.asIntBuffer().put(days);
+        buffer.position(buffer.position() + days.length * Integer.BYTES);
+        buffer.asLongBuffer().put(cents);
+        buffer.position(buffer.position() + cents.length * Long.BYTES);
+        buffer.asShortBuffer().put(categories);
+        buffer.position(buffer.position() + categories.length * Short.BYTES);
+        buffer.asShortBuffer().put(subCategories);
+        buffer.position(buffer.position() + subCategories.length * Short.BYTES);
+    }
+
+    static ExpenseColumns decode(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        UUID[] categoryIds = new UUID[buffer.getInt()];
+        UUID[] subCategoryIds = new UUID[buffer.getInt()];
+        boolean[] categoryActive = new boolean[categoryIds.length];
+        for (int i = 0; i < categoryIds.length; i++) {
+            categoryIds[i] = getUuid(buffer);
+            categoryActive[i] = buffer.get() != 0;
+        }
+        for (int i = 0; i < subCategoryIds.length; i++) {
+            subCategoryIds[i] = getUuid(buffer);
+        }
+        UUID[] ids = new UUID[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = getUuid(buffer);
+        }
+        int[] days = new int[size];
+        buffer.asIntBuffer().get(days);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+        long[] cents = new long[size];
+        buffer.asLongBuffer().get(cents);
+        buffer.position(buffer.position() + size * Long.BYTES);
+        short[] categories = new short[size];
+        buffer.asShortBuffer().get(categories);
+        buffer.position(buffer.position() + size * Short.BYTES);
+        short[] subCategories = new short[size];
+        buffer.asShortBuffer().get(subCategories);
+        buffer.position(buffer.position() + size * Short.BYTES);
+        return new ExpenseColumns(ids, days, cents, categories, subCategories,
+                categoryIds, categoryActive, subCategoryIds);
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID value) {
+        buffer.putLong(value.getMostSignificantBits()).putLong(value.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    // First row on or after the day
+    private int lowerBound(int day) {
+        int low = 0;
+        int high = days.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First row after the day
+    private int upperBound(int day) {
+        return day == Integer.MAX_VALUE ? days.length : lowerBound(day + 1);
+    }
+
+    private static short index(int index) {
+        if (index > Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many categories or subcategories for a short index: " + index);
+        }
+        return (short) index;
+    }
+
+    private static int indexOf(UUID[] values, UUID value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static UUID[] insert(UUID[] source, UUID[] target, int at, UUID value) {
+        System.arraycopy(source, 0, target, 0, at);
+        target[at] = value;
+        System.arraycopy(source, at, target, at + 1, source.length - at);
+        return target;
+    }
+
+    private static int[] insert(int[] source, int at, int value) {
+        int[] target = new int[source.length + 1];
+        System.arraycopy(source, 0, target, 0, at);
+        target[at] = value;
+        System.arraycopy(source, at, target, at + 1, source.length - at);
+        return target;
+    }
+
+    private static long[] insert(long[] source, int at, long value) {
+        long[] target = new long[source.length + 1];
+        System.arraycopy(source, 0, target, 0, at);
+        target[at] = value;
+        System.arraycopy(source, at, target, at + 1, source.length - at);
+        return target;
+    }
+
+    private static short[] insert(short[] source, int at, short value) {
+        short[] target = new short[source.length + 1];
+        System.arraycopy(source, 0, target, 0, at);
+        target[at] = value;
+        System.arraycopy(source, at, target, at + 1, source.length - at);
+        return target;
+    }
+
+    private static UUID[] remove(UUID[] source, UUID[] target, int at) {
+        System.arraycopy(source, 0, target, 0, at);
+        System.arraycopy(source, at + 1, target, at, source.length - at - 1);
+        return target;
+    }
+
+    private static int[] remove(int[] source, int at) {
+        int[] target = new int[source.length - 1];
+        System.arraycopy(source, 0, target, 0, at);
+        System.arraycopy(source, at + 1, target, at, source.length - at - 1);
+        return target;
+    }
+
+    private static long[] remove(long[] source, int at) {
+        long[] target = new long[source.length - 1];
+        System.arraycopy(source, 0, target, 0, at);
+        System.arraycopy(source, at + 1, target, at, source.length - at - 1);
+        return target;
+    }
+
+    private static short[] remove(short[] source, int at) {
+        short[] target = new short[source.length - 1];
+        System.arraycopy(source, 0, target, 0, at);
+        System.arraycopy(source, at + 1, target, at, source.length - at - 1);
+        return target;
+    }
+}
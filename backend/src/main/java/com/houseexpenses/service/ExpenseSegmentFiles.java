@@ -0,0 +1,87 @@
+package com.houseexpenses.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One binary segment file per user holding their {@link ExpenseColumns} as of a watermark, so
+ * a restarted instance can map them back instead of reading every expense. Files are replaced
+ * atomically; a file from another format version, or one that fails to read, is ignored and
+ * the user is loaded from the database as before.
+ */
+@Component
+@Slf4j
+public class ExpenseSegmentFiles {
+
+    private static final int MAGIC = 0x48455853;
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Long.BYTES;
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+
+    public ExpenseSegmentFiles(@Value("${app.expense-columns.segment-dir:}") String directory) {
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+    }
+
+    record Segment(ExpenseColumns columns, Instant watermark) {
+    }
+
+    boolean isEnabled() {
+        return directory != null;
+    }
+
+    Segment read(UUID userId) {
+        Path file = file(userId);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+                log.info("Ignoring expense segment {} written in another format", file);
+                return null;
+            }
+            Instant watermark = Instant.ofEpochMilli(buffer.getLong());
+            return new Segment(ExpenseColumns.decode(buffer), watermark);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not read expense segment {}", file, ex);
+            return null;
+        }
+    }
+
+    void write(UUID userId, ExpenseColumns columns, Instant watermark) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + columns.encodedSize());
+        buffer.putInt(MAGIC).putShort(FORMAT_VERSION).putLong(watermark.toEpochMilli());
+        columns.encode(buffer);
+        buffer.flip();
+
+        Files.createDirectories(directory);
+        Path file = file(userId);
+        Path temp = directory.resolve(userId + SUFFIX + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path file(UUID userId) {
+        return directory.resolve(userId + SUFFIX);
+    }
+}
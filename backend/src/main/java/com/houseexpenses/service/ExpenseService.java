@@ -1,5 +1,7 @@
 package com.houseexpenses.service;
 
+import com.houseexpenses.config.CacheInvalidationBus;
+import com.houseexpenses.config.CacheInvalidationEvent.Topic;
 import com.houseexpenses.dto.*;
 import com.houseexpenses.exception.ResourceNotFoundException;
 import com.houseexpenses.model.*;
@@ -13,7 +15,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -26,6 +31,9 @@ public class ExpenseService {
     private final CategoryRepository categoryRepository;
     private final SubCategoryRepository subCategoryRepository;
     private final AlertService alertService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final PeriodSnapshotService periodSnapshotService;
+    private final ExpenseColumnStore expenseColumnStore;
 
     @Transactional(readOnly = true)
     public Page<ExpenseDTO> getExpenses(UUID userId, LocalDate startDate, LocalDate endDate,
@@ -60,13 +68,16 @@ public class ExpenseService {
                 .userId(userId)
                 .category(category)
                 .subCategory(subCategory)
-                .amount(dto.getAmount())
+                .amount(Money.of(dto.getAmount()))
                 .description(dto.getDescription())
                 .expenseDate(dto.getDate())
                 .expenseType(dto.getExpenseType() != null ? dto.getExpenseType() : Expense.ExpenseType.monthly)
                 .build();
 
         expense = expenseRepository.save(expense);
+        periodSnapshotService.invalidate(userId, expense.getExpenseDate());
+        expenseColumnStore.upsert(expense);
+        cacheInvalidationBus.publish(Topic.expenses, userId);
         log.info("Created expense {} for user {}", expense.getId(), userId);
 
         // Check budget and create alerts if necessary
@@ -98,14 +109,19 @@ public class ExpenseService {
                     .orElseThrow(() -> new ResourceNotFoundException("SubCategory", "id", dto.getSubCategoryId()));
         }
 
+        LocalDate previousDate = expense.getExpenseDate();
         expense.setCategory(category);
         expense.setSubCategory(subCategory);
-        expense.setAmount(dto.getAmount());
+        expense.setAmount(Money.of(dto.getAmount()));
         expense.setDescription(dto.getDescription());
         expense.setExpenseDate(dto.getDate());
         expense.setExpenseType(dto.getExpenseType() != null ? dto.getExpenseType() : Expense.ExpenseType.monthly);
 
         expense = expenseRepository.save(expense);
+        periodSnapshotService.invalidate(userId, previousDate);
+        periodSnapshotService.invalidate(userId, expense.getExpenseDate());
+        expenseColumnStore.upsert(expense);
+        cacheInvalidationBus.publish(Topic.expenses, userId);
         log.info("Updated expense {} for user {}", expense.getId(), userId);
 
         return mapToDTO(expense);
@@ -118,9 +134,41 @@ public class ExpenseService {
                 .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", expenseId));
 
         expenseRepository.delete(expense);
+        periodSnapshotService.invalidate(userId, expense.getExpenseDate());
+        expenseColumnStore.remove(userId, expenseId);
+        cacheInvalidationBus.publish(Topic.expenses, userId);
         log.info("Deleted expense {} for user {}", expenseId, userId);
     }
 
+    public ExpenseListDTO normalize(List<ExpenseDTO> expenses) {
+        Map<UUID, CategoryDTO> categories = new LinkedHashMap<>();
+        Map<UUID, SubCategoryDTO> subCategories = new LinkedHashMap<>();
+        List<ExpenseRowDTO> rows = new ArrayList<>(expenses.size());
+
+        for (ExpenseDTO expense : expenses) {
+            categories.putIfAbsent(expense.getCategory().getId(), expense.getCategory());
+            if (expense.getSubCategory() != null) {
+                subCategories.putIfAbsent(expense.getSubCategory().getId(), expense.getSubCategory());
+            }
+            rows.add(ExpenseRowDTO.builder()
+                    .id(expense.getId())
+                    .categoryId(expense.getCategory().getId())
+                    .subCategoryId(expense.getSubCategory() != null ? expense.getSubCategory().getId() : null)
+                    .amount(expense.getAmount())
+                    .description(expense.getDescription())
+                    .date(expense.getDate())
+                    .expenseType(expense.getExpenseType())
+                    .createdAt(expense.getCreatedAt())
+                    .build());
+        }
+
+        return ExpenseListDTO.builder()
+                .categories(categories)
+                .subCategories(subCategories)
+                .expenses(rows)
+                .build();
+    }
+
     private ExpenseDTO mapToDTO(Expense expense) {
         return ExpenseDTO.builder()
                 .id(expense.getId())
@@ -0,0 +1,226 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.config.ShardDirectory;
+import com.houseexpenses.model.Budget.BudgetPeriod;
+import com.houseexpenses.model.Money;
+import com.houseexpenses.model.PeriodSnapshot;
+import com.houseexpenses.model.PeriodSnapshot.SubCategoryTotal;
+import com.houseexpenses.model.PeriodSnapshot.Totals;
+import com.houseexpenses.repository.ExpenseRepository;
+import com.houseexpenses.repository.PeriodSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable per-user totals for months and years that have ended, so browsing past periods
+ * reads one row instead of aggregating expenses. A nightly job fills in missing periods, and
+ * backdated expense changes delete the snapshots they touch until the next run rebuilds them.
+ * Both sides take a per-user advisory lock, so a build can never store totals that miss a
+ * change committed while it ran.
+ * <p>
+ * Only the SQL dashboard path reads snapshots, so while the expense column store is enabled
+ * nothing reads or builds them. Backdated changes still delete the ones they touch, so the
+ * stored rows stay correct for when the column store is turned off.
+ */
+@Service
+@Slf4j
+public class PeriodSnapshotService {
+
+    private final PeriodSnapshotRepository periodSnapshotRepository;
+    private final ExpenseRepository expenseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ShardDirectory> shardDirectory;
+    private final boolean enabled;
+    // Whether snapshots are read and built, rather than only kept from going stale
+    private final boolean serving;
+    private final int lookbackMonths;
+
+    public PeriodSnapshotService(PeriodSnapshotRepository periodSnapshotRepository,
+                                 ExpenseRepository expenseRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectProvider<ShardDirectory> shardDirectory,
+                                 @Value("${app.period-snapshots.enabled:true}") boolean enabled,
+                                 @Value("${app.expense-columns.enabled:true}") boolean expenseColumnsEnabled,
+                                 @Value("${app.period-snapshots.lookback-months:24}") int lookbackMonths) {
+        this.periodSnapshotRepository = periodSnapshotRepository;
+        this.expenseRepository = expenseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardDirectory = shardDirectory;
+        this.enabled = enabled;
+        this.serving = enabled && !expenseColumnsEnabled;
+        this.lookbackMonths = lookbackMonths;
+        if (enabled && expenseColumnsEnabled) {
+            log.info("Period snapshots are not read or built while dashboard totals come from the expense column store");
+        }
+    }
+
+    /**
+     * The stored totals for a closed period, or null when the period is still open or has not
+     * been snapshotted yet.
+     */
+    public Totals find(UUID userId, BudgetPeriod period, LocalDate periodStart) {
+        if (!serving || !isClosed(period, periodStart)) {
+            return null;
+        }
+        return periodSnapshotRepository.findByUserIdAndPeriodAndPeriodStart(userId, period, periodStart)
+                .map(PeriodSnapshot::getTotals)
+                .orElse(null);
+    }
+
+    /**
+     * Drops the snapshots covering an expense date. Must run inside the transaction that
+     * changes the expense.
+     */
+    public void invalidate(UUID userId, LocalDate expenseDate) {
+        LocalDate monthStart = expenseDate.withDayOfMonth(1);
+        if (!enabled || !isClosed(BudgetPeriod.monthly, monthStart)) {
+            return;
+        }
+        lock(userId);
+        int deleted = periodSnapshotRepository.deleteByUserIdAndPeriodAndPeriodStart(
+                userId, BudgetPeriod.monthly, monthStart);
+        deleted += periodSnapshotRepository.deleteByUserIdAndPeriodAndPeriodStart(
+                userId, BudgetPeriod.annual, expenseDate.withDayOfYear(1));
+        if (deleted > 0) {
+            log.info("Invalidated {} period snapshots for user {} after a change on {}", deleted, userId, expenseDate);
+        }
+    }
+
+    /**
+     * Drops all of a user's snapshots, for changes such as deactivating a category that
+     * alter what every past period counts.
+     */
+    public void invalidateAll(UUID userId) {
+        if (!enabled) {
+            return;
+        }
+        lock(userId);
+        int deleted = periodSnapshotRepository.deleteByUserId(userId);
+        if (deleted > 0) {
+            log.info("Invalidated all {} period snapshots for user {}", deleted, userId);
+        }
+    }
+
+    @Scheduled(cron = "${app.period-snapshots.cron:0 15 0 * * *}")
+    public void snapshotClosedPeriods() {
+        if (!serving) {
+            return;
+        }
+        ShardDirectory directory = shardDirectory.getIfAvailable();
+        if (directory != null) {
+            directory.forEachShard(this::snapshotClosedPeriodsOnShard);
+        } else {
+            snapshotClosedPeriodsOnShard();
+        }
+    }
+
+    private void snapshotClosedPeriodsOnShard() {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate since = currentMonth.minusMonths(lookbackMonths).withDayOfYear(1);
+
+        Set<List<Object>> existing = new HashSet<>();
+        for (Object[] row : periodSnapshotRepository.findKeysSince(since)) {
+            existing.add(List.of(row));
+        }
+
+        Set<List<Object>> missing = new LinkedHashSet<>();
+        for (Object[] row : expenseRepository.findActiveMonths(since, currentMonth.minusDays(1))) {
+            UUID userId = (UUID) row[0];
+            LocalDate monthStart = LocalDate.of((Integer) row[1], (Integer) row[2], 1);
+            missing.add(List.of(userId, BudgetPeriod.monthly, monthStart));
+            if (isClosed(BudgetPeriod.annual, monthStart.withDayOfYear(1))) {
+                missing.add(List.of(userId, BudgetPeriod.annual, monthStart.withDayOfYear(1)));
+            }
+        }
+        missing.removeAll(existing);
+
+        int built = 0;
+        for (List<Object> key : missing) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        build((UUID) key.get(0), (BudgetPeriod) key.get(1), (LocalDate) key.get(2)));
+                built++;
+            } catch (RuntimeException ex) {
+                log.warn("Could not snapshot {} {} for user {}", key.get(1), key.get(2), key.get(0), ex);
+            }
+        }
+        if (built > 0) {
+            log.info("Built {} period snapshots", built);
+        }
+    }
+
+    private void build(UUID userId, BudgetPeriod period, LocalDate periodStart) {
+        lock(userId);
+        if (periodSnapshotRepository.findByUserIdAndPeriodAndPeriodStart(userId, period, periodStart).isPresent()) {
+            return;
+        }
+        boolean annual = period == BudgetPeriod.annual;
+        LocalDate periodEnd = annual
+                ? periodStart.plusYears(1).minusDays(1)
+                : periodStart.plusMonths(1).minusDays(1);
+
+        // Weeks of the month are counted from the 1st, like the monthly chart
+        int bucketCount = annual ? 12 : (periodEnd.getDayOfMonth() + 6) / 7;
+        List<Money> buckets = new ArrayList<>(Collections.nCopies(bucketCount, Money.ZERO));
+        Money total = Money.ZERO;
+        for (Object[] row : expenseRepository.sumByDay(userId, periodStart, periodEnd)) {
+            LocalDate day = (LocalDate) row[0];
+            Money amount = Money.of((BigDecimal) row[1]);
+            int bucket = annual ? day.getMonthValue() - 1 : (day.getDayOfMonth() - 1) / 7;
+            buckets.set(bucket, buckets.get(bucket).plus(amount));
+            total = total.plus(amount);
+        }
+
+        Map<UUID, Money> categories = new HashMap<>();
+        for (Object[] row : expenseRepository.sumByCategory(userId, periodStart, periodEnd)) {
+            categories.put((UUID) row[0], Money.of((BigDecimal) row[1]));
+        }
+
+        Map<UUID, SubCategoryTotal> subCategories = new HashMap<>();
+        for (Object[] row : expenseRepository.sumBySubCategoryGrouped(userId, periodStart, periodEnd)) {
+            subCategories.put((UUID) row[0],
+                    new SubCategoryTotal(Money.of((BigDecimal) row[1]), (Long) row[2], (LocalDate) row[3]));
+        }
+
+        periodSnapshotRepository.save(PeriodSnapshot.builder()
+                .userId(userId)
+                .period(period)
+                .periodStart(periodStart)
+                .totals(new Totals(total, buckets, categories, subCategories))
+                .build());
+    }
+
+    private void lock(UUID userId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null,
+                userId.getMostSignificantBits() ^ userId.getLeastSignificantBits());
+    }
+
+    private static boolean isClosed(BudgetPeriod period, LocalDate periodStart) {
+        LocalDate today = LocalDate.now();
+        LocalDate periodEnd = period == BudgetPeriod.annual
+                ? periodStart.plusYears(1).minusDays(1)
+                : periodStart.plusMonths(1).minusDays(1);
+        return periodEnd.isBefore(today);
+    }
+}
@@ -0,0 +1,142 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.config.ShardAssignment;
+import com.houseexpenses.config.ShardContext;
+import com.houseexpenses.config.ShardDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves one user's rows to another shard while the API keeps serving:
+ * mark the user as moving (writes are refused, reads stay on the source), wait until every
+ * instance has seen that, copy and verify, switch the directory, wait again, then delete the
+ * source rows.
+ */
+@Service
+@ConditionalOnProperty(name = "app.shards.enabled", havingValue = "true")
+@Slf4j
+public class ShardMoveService {
+
+    // Parent tables first; each filter selects the user's rows given the user id
+    private static final Map<String, String> USER_TABLES = new LinkedHashMap<>();
+
+    static {
+        USER_TABLES.put("user_profiles", "id = ?");
+        USER_TABLES.put("categories", "user_id = ?");
+        USER_TABLES.put("subcategories", "category_id IN (SELECT id FROM categories WHERE user_id = ?)");
+        USER_TABLES.put("budgets", "user_id = ?");
+        USER_TABLES.put("expenses", "user_id = ?");
+        USER_TABLES.put("alerts", "user_id = ?");
+        USER_TABLES.put("period_snapshots", "user_id = ?");
+    }
+
+    private final ShardDirectory shardDirectory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public ShardMoveService(ShardDirectory shardDirectory, JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager) {
+        this.shardDirectory = shardDirectory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    public void move(UUID userId, int targetShardId) {
+        if (!shardDirectory.getShardIds().contains(targetShardId)) {
+            throw new IllegalArgumentException("Unknown shard: " + targetShardId);
+        }
+        ShardAssignment assignment = shardDirectory.lookup(userId);
+        if (assignment.state() == ShardAssignment.State.moving) {
+            throw new IllegalStateException("User " + userId + " is already being moved");
+        }
+        int sourceShardId = assignment.shardId();
+        if (sourceShardId == targetShardId) {
+            log.info("User {} is already on shard {}", userId, targetShardId);
+            return;
+        }
+
+        log.info("Moving user {} from shard {} to shard {}", userId, sourceShardId, targetShardId);
+        shardDirectory.markMoving(userId, targetShardId);
+        try {
+            awaitDirectoryPropagation();
+            Map<String, List<Map<String, Object>>> rows = ShardContext.callOnShard(sourceShardId,
+                    () -> readOnlyTransactionTemplate.execute(status -> readRows(userId)));
+            ShardContext.runOnShard(targetShardId, () -> transactionTemplate.executeWithoutResult(status -> {
+                deleteRows(userId);
+                rows.forEach(this::insertRows);
+            }));
+            verify(userId, targetShardId, rows);
+        } catch (RuntimeException ex) {
+            log.error("Move of user {} failed, keeping it on shard {}", userId, sourceShardId, ex);
+            ShardContext.runOnShard(targetShardId, () -> transactionTemplate.executeWithoutResult(
+                    status -> deleteRows(userId)));
+            shardDirectory.abortMove(userId);
+            throw ex;
+        }
+
+        shardDirectory.completeMove(userId, targetShardId);
+        // Instances with a stale entry still read from the source until their cache expires
+        awaitDirectoryPropagation();
+        ShardContext.runOnShard(sourceShardId, () -> transactionTemplate.executeWithoutResult(
+                status -> deleteRows(userId)));
+        log.info("Moved user {} to shard {}", userId, targetShardId);
+    }
+
+    private Map<String, List<Map<String, Object>>> readRows(UUID userId) {
+        Map<String, List<Map<String, Object>>> rows = new LinkedHashMap<>();
+        USER_TABLES.forEach((table, filter) ->
+                rows.put(table, jdbcTemplate.queryForList("SELECT * FROM " + table + " WHERE " + filter, userId)));
+        return rows;
+    }
+
+    private void insertRows(String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = List.copyOf(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", columns.stream().map(c -> "?").toList()) + ")";
+        jdbcTemplate.batchUpdate(sql, rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .toList());
+    }
+
+    private void deleteRows(UUID userId) {
+        List<String> tables = List.copyOf(USER_TABLES.keySet());
+        for (int i = tables.size() - 1; i >= 0; i--) {
+            String table = tables.get(i);
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE " + USER_TABLES.get(table), userId);
+        }
+    }
+
+    private void verify(UUID userId, int shardId, Map<String, List<Map<String, Object>>> expected) {
+        ShardContext.runOnShard(shardId, () -> expected.forEach((table, rows) -> {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM " + table + " WHERE " + USER_TABLES.get(table), Integer.class, userId);
+            if (count == null || count != rows.size()) {
+                throw new IllegalStateException("Copied " + count + " of " + rows.size() + " rows from " + table);
+            }
+        }));
+    }
+
+    private void awaitDirectoryPropagation() {
+        try {
+            Thread.sleep(shardDirectory.getCacheTtl() + 1000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the shard directory to propagate", ex);
+        }
+    }
+}
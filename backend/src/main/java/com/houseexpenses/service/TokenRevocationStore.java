@@ -0,0 +1,113 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.config.ShardContext;
+import com.houseexpenses.model.RevokedToken;
+import com.houseexpenses.model.RevokedToken.TokenType;
+import com.houseexpenses.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked refresh tokens and token families, mirrored in memory from the revoked_tokens table
+ * so that rejecting a revoked token never needs a database round trip. A refresh writes to the
+ * table anyway, so it also checks there for a family revoked on another instance since the
+ * last sync. Entries are dropped once the tokens they cover have expired.
+ */
+@Component
+@Slf4j
+public class TokenRevocationStore {
+
+    // Rows revoked on other instances are picked up with some overlap to tolerate clock skew
+    private static final long SYNC_OVERLAP_MILLIS = 60_000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long refreshExpiration;
+    private final Map<UUID, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> revokedFamilies = new ConcurrentHashMap<>();
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationStore(RevokedTokenRepository revokedTokenRepository,
+                                @Value("${app.jwt.refresh-expiration}") long refreshExpiration) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    public boolean isFamilyRevoked(UUID familyId) {
+        return revokedFamilies.containsKey(familyId);
+    }
+
+    /**
+     * Revokes a single refresh token. Returns false if it was already revoked, or its family
+     * was, here or on another instance, which means the token is being reused.
+     */
+    @Transactional
+    public boolean revokeToken(UUID tokenId, UUID familyId, UUID userId, Instant expiresAt) {
+        if (revokedTokens.containsKey(tokenId) || revokedFamilies.containsKey(familyId)) {
+            return false;
+        }
+        // Global table; the refresh request may still carry the user's access token. Concurrent
+        // uses of one token wait on its row, so only one of them inserts it. Read-write, so the
+        // family lookup sees revocations committed on the primary
+        boolean inserted = ShardContext.callOnShard(ShardContext.DEFAULT_SHARD, () -> {
+            int rows = revokedTokenRepository.insertIfAbsent(tokenId, TokenType.refresh.name(), userId,
+                    OffsetDateTime.ofInstant(expiresAt, ZoneOffset.UTC));
+            Optional<RevokedToken> family = revokedTokenRepository.findById(familyId);
+            if (family.isPresent()) {
+                revokedFamilies.put(familyId, family.get().getExpiresAt().toInstant().toEpochMilli());
+                return false;
+            }
+            return rows > 0;
+        });
+        // Mirrored only once the row is committed, so a failed insert leaves the token usable for a retry
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revokedTokens.put(tokenId, expiresAt.toEpochMilli());
+            }
+        });
+        return inserted;
+    }
+
+    @Transactional
+    public void revokeFamily(UUID familyId, UUID userId) {
+        // No member of the family can outlive a refresh token issued right now
+        Instant expiresAt = Instant.now().plusMillis(refreshExpiration);
+        revokedFamilies.put(familyId, expiresAt.toEpochMilli());
+        ShardContext.runOnShard(ShardContext.DEFAULT_SHARD, () -> revokedTokenRepository.insertIfAbsent(
+                familyId, TokenType.family.name(), userId, OffsetDateTime.ofInstant(expiresAt, ZoneOffset.UTC)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-sync-interval:30000}")
+    @Transactional
+    public void sync() {
+        Instant now = Instant.now();
+        OffsetDateTime since = OffsetDateTime.ofInstant(lastSync.minusMillis(SYNC_OVERLAP_MILLIS), ZoneOffset.UTC);
+        for (RevokedToken revoked : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(
+                since, OffsetDateTime.ofInstant(now, ZoneOffset.UTC))) {
+            Map<UUID, Long> target = revoked.getTokenType() == TokenType.family ? revokedFamilies : revokedTokens;
+            target.put(revoked.getId(), revoked.getExpiresAt().toInstant().toEpochMilli());
+        }
+        lastSync = now;
+
+        long nowMillis = now.toEpochMilli();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < nowMillis);
+        revokedFamilies.values().removeIf(expiresAt -> expiresAt < nowMillis);
+        int deleted = revokedTokenRepository.deleteExpired(OffsetDateTime.ofInstant(now, ZoneOffset.UTC));
+        if (deleted > 0) {
+            log.debug("Pruned {} expired revoked tokens", deleted);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.houseexpenses.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.houseexpenses.config.CacheInvalidationBus;
+import com.houseexpenses.config.CacheInvalidationEvent;
+import com.houseexpenses.config.CacheInvalidationEvent.Topic;
+import com.houseexpenses.config.ShardContext;
+import com.houseexpenses.config.ShardDirectory;
+import com.houseexpenses.repository.AlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory unread alert counters per user, seeded lazily from the database and dropped
+ * once a user has not asked for a while. Changes are applied after the surrounding
+ * transaction commits; the periodic reconciliation corrects any drift from races with the
+ * initial seed. Other instances drop their copy of a user's counter when it changes here.
+ */
+@Component
+@Slf4j
+public class UnreadAlertCounter {
+
+    private static final String CACHE_NAME = "unreadAlerts";
+    // Users per grouped count query during reconciliation
+    private static final int RECONCILE_BATCH = 1000;
+
+    private final AlertRepository alertRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ObjectProvider<ShardDirectory> shardDirectory;
+    private final Cache<UUID, AtomicLong> counters;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UnreadAlertCounter(AlertRepository alertRepository, CacheInvalidationBus cacheInvalidationBus,
+                              ObjectProvider<ShardDirectory> shardDirectory, MeterRegistry meterRegistry,
+                              @Value("${app.alerts.unread-cache-size:100000}") long maxSize,
+                              @Value("${app.alerts.unread-idle-timeout:3600000}") long idleTimeout) {
+        this.alertRepository = alertRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.shardDirectory = shardDirectory;
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMillis(idleTimeout))
+                .build();
+        this.hits = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "hit");
+        this.misses = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "miss");
+        Gauge.builder("cache.size", counters, Cache::estimatedSize)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public long get(UUID userId) {
+        AtomicLong counter = counters.getIfPresent(userId);
+        if (counter == null) {
+            misses.increment();
+            long count = alertRepository.countByUserIdAndIsReadFalse(userId);
+            return counters.asMap().computeIfAbsent(userId, id -> new AtomicLong(count)).get();
+        }
+        hits.increment();
+        return counter.get();
+    }
+
+    public void increment(UUID userId) {
+        adjustAfterCommit(userId, 1);
+    }
+
+    public void decrement(UUID userId, long amount) {
+        adjustAfterCommit(userId, -amount);
+    }
+
+    public void evict(UUID userId) {
+        counters.invalidate(userId);
+    }
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (!event.covers(Topic.alerts)) {
+            return;
+        }
+        if (event.userId() == null) {
+            counters.invalidateAll();
+        } else {
+            evict(event.userId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.alerts.unread-reconcile-interval:300000}")
+    public void reconcile() {
+        List<UUID> userIds = List.copyOf(counters.asMap().keySet());
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<UUID>> byShard = new HashMap<>();
+        ShardDirectory directory = shardDirectory.getIfAvailable();
+        for (UUID userId : userIds) {
+            int shardId = directory != null ? directory.lookup(userId).shardId() : ShardContext.DEFAULT_SHARD;
+            byShard.computeIfAbsent(shardId, id -> new ArrayList<>()).add(userId);
+        }
+
+        int corrected = 0;
+        for (Map.Entry<Integer, List<UUID>> shard : byShard.entrySet()) {
+            List<UUID> shardUsers = shard.getValue();
+            for (int from = 0; from < shardUsers.size(); from += RECONCILE_BATCH) {
+                List<UUID> batch = shardUsers.subList(from, Math.min(from + RECONCILE_BATCH, shardUsers.size()));
+                Map<UUID, Long> actual = countUnread(shard.getKey(), batch);
+                for (UUID userId : batch) {
+                    AtomicLong counter = counters.getIfPresent(userId);
+                    long count = actual.getOrDefault(userId, 0L);
+                    if (counter != null && counter.getAndSet(count) != count) {
+                        corrected++;
+                    }
+                }
+            }
+        }
+        if (corrected > 0) {
+            log.info("Reconciled unread alert counters, corrected {} of {}", corrected, userIds.size());
+        }
+    }
+
+    private Map<UUID, Long> countUnread(int shardId, List<UUID> userIds) {
+        Map<UUID, Long> counts = new HashMap<>();
+        ShardContext.runOnShard(shardId, () -> {
+            for (Object[] row : alertRepository.countUnreadByUserIds(userIds)) {
+                counts.put((UUID) row[0], (Long) row[1]);
+            }
+        });
+        return counts;
+    }
+
+    private void adjustAfterCommit(UUID userId, long delta) {
+        if (delta != 0) {
+            cacheInvalidationBus.publish(Topic.alerts, userId);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust(userId, delta);
+                }
+            });
+        } else {
+            adjust(userId, delta);
+        }
+    }
+
+    private void adjust(UUID userId, long delta) {
+        // Absent counters are seeded from the database on the next read, which already reflects this change
+        AtomicLong counter = counters.getIfPresent(userId);
+        if (counter != null) {
+            counter.accumulateAndGet(delta, (current, d) -> Math.max(0, current + d));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.houseexpenses.util;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+
+public final class SecurityUtils {
+
+    private SecurityUtils() {
+        // Utility class
+    }
+
+    public static UUID currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UUID userId) {
+            return userId;
+        }
+        return null;
+    }
+}
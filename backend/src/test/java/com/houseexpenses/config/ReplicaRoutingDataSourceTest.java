@@ -0,0 +1,154 @@
+package com.houseexpenses.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routes real transactions between two in-memory H2 databases that each answer with their
+ * own node name, wired the way DataSourceConfig wires the primary and the replica.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long STICKY_WINDOW = 300;
+
+    private final ReplicaLagMonitor replicaLagMonitor = mock(ReplicaLagMonitor.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        ReplicaProperties replicaProperties = new ReplicaProperties();
+        replicaProperties.setStickyWindow(STICKY_WINDOW);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                replicaLagMonitor, new UserWriteTracker(replicaProperties), meterRegistry);
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.Node.primary, node("primary"),
+                ReplicaRoutingDataSource.Node.replica, node("replica")));
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(routing);
+        lazy.setDefaultAutoCommit(true);
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(lazy);
+        jdbcTemplate = new JdbcTemplate(lazy);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        when(replicaLagMonitor.isReplicaUsable()).thenReturn(true);
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        actAs(UUID.randomUUID());
+
+        assertThat(nodeFor(readOnly)).isEqualTo("replica");
+        assertThat(routed("replica", "read")).isEqualTo(1);
+    }
+
+    @Test
+    void writesUseThePrimary() {
+        actAs(UUID.randomUUID());
+
+        String node = readWrite.execute(status -> {
+            jdbcTemplate.update("INSERT INTO writes (id) VALUES (?)", UUID.randomUUID());
+            return currentNode();
+        });
+        assertThat(node).isEqualTo("primary");
+        assertThat(routed("primary", "write")).isEqualTo(1);
+    }
+
+    @Test
+    void readsAfterACommittedWriteStayOnThePrimaryForTheStickyWindow() throws InterruptedException {
+        UUID writer = UUID.randomUUID();
+        actAs(writer);
+        readWrite.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO writes (id) VALUES (?)", UUID.randomUUID()));
+
+        assertThat(nodeFor(readOnly)).isEqualTo("primary");
+        assertThat(routed("primary", "sticky")).isEqualTo(1);
+
+        actAs(UUID.randomUUID());
+        assertThat(nodeFor(readOnly)).isEqualTo("replica");
+
+        actAs(writer);
+        Thread.sleep(STICKY_WINDOW + 200);
+        assertThat(nodeFor(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinTheUser() {
+        actAs(UUID.randomUUID());
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO writes (id) VALUES (?)", UUID.randomUUID());
+            status.setRollbackOnly();
+        });
+
+        assertThat(nodeFor(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsStayOnThePrimaryWhileTheReplicaLags() {
+        actAs(UUID.randomUUID());
+        when(replicaLagMonitor.isReplicaUsable()).thenReturn(false);
+
+        assertThat(nodeFor(readOnly)).isEqualTo("primary");
+        assertThat(routed("primary", "lag")).isEqualTo(1);
+    }
+
+    private String nodeFor(TransactionTemplate transaction) {
+        return transaction.execute(status -> currentNode());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private double routed(String node, String reason) {
+        return meterRegistry.counter("db.routing", "node", node, "reason", reason).count();
+    }
+
+    private static void actAs(UUID userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+    }
+
+    private static DataSource node(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("CREATE TABLE node (name VARCHAR(16))");
+        setup.execute("CREATE TABLE writes (id UUID PRIMARY KEY)");
+        setup.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
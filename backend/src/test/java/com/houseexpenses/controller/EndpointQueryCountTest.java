@@ -0,0 +1,148 @@
+package com.houseexpenses.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Statement budgets for every endpoint with the default configuration, where dashboard
+ * aggregations run over the in-memory expense columns.
+ */
+class EndpointQueryCountTest extends QueryCountTestSupport {
+
+    @Test
+    void authEndpoints() throws Exception {
+        assertStatements("POST /v1/auth/session", statements(post("/v1/auth/session"),
+                Map.of("userId", UUID.randomUUID().toString(), "displayName", "Other")), 3);
+        assertStatements("GET /v1/auth/profile", readStatements("/v1/auth/profile"), 1);
+        assertStatements("PUT /v1/auth/profile", statements(put("/v1/auth/profile"),
+                Map.of("displayName", "Renamed", "monthlyBudgetLimit", 2500)), 2);
+    }
+
+    @Test
+    void expenseReads() throws Exception {
+        UUID expenseId = expenseIds.get(0);
+        assertStatements("GET /v1/expenses", readStatements("/v1/expenses?size=50"), 2);
+        assertStatements("GET /v1/expenses?shape=normalized", readStatements("/v1/expenses?shape=normalized&size=50"), 2);
+        assertStatements("GET /v1/expenses filtered", readStatements("/v1/expenses?categoryId=" + categoryIds.get(0)
+                + "&startDate=" + LocalDate.now().minusMonths(3)), 2);
+        assertStatements("GET /v1/expenses/{id}", readStatements("/v1/expenses/" + expenseId), 1);
+    }
+
+    @Test
+    void expenseWrites() throws Exception {
+        Map<String, Object> expense = expense(42.10);
+        assertStatements("POST /v1/expenses", statements(post("/v1/expenses"), expense), 3);
+        assertStatements("POST /v1/expenses/bulk", statements(post("/v1/expenses/bulk"),
+                List.of(expense(1.5), expense(2.5), expense(3.5), expense(4.5), expense(5.5))), 15);
+
+        UUID expenseId = UUID.fromString(call(post("/v1/expenses"), expense).path("id").asText());
+        assertStatements("PUT /v1/expenses/{id}", statements(put("/v1/expenses/" + expenseId), expense(45.00)), 2);
+        assertStatements("DELETE /v1/expenses/{id}", statements(delete("/v1/expenses/" + expenseId)), 2);
+    }
+
+    @Test
+    void categoryReads() throws Exception {
+        assertStatements("GET /v1/categories", readStatements("/v1/categories"), 0);
+        assertStatements("GET /v1/categories?type", readStatements("/v1/categories?type=monthly"), 1);
+        assertStatements("GET /v1/categories/{id}", readStatements("/v1/categories/" + categoryIds.get(0)), 0);
+    }
+
+    @Test
+    void categoryWrites() throws Exception {
+        Map<String, Object> category = Map.of("name", "Scratch", "icon", "cart", "color", "#abcdef", "expenseType", "monthly");
+        JsonNode created = call(post("/v1/categories"), category);
+        UUID categoryId = UUID.fromString(created.path("id").asText());
+
+        assertStatements("POST /v1/categories", statements(post("/v1/categories"),
+                Map.of("name", "Another", "icon", "cart", "color", "#abcdee", "expenseType", "monthly")), 3);
+        assertStatements("PUT /v1/categories/{id}", statements(put("/v1/categories/" + categoryId),
+                Map.of("name", "Renamed", "icon", "cart", "color", "#abcdef", "expenseType", "monthly")), 2);
+        assertStatements("PUT /v1/categories/{id}/reorder", statements(put("/v1/categories/" + categoryId + "/reorder"),
+                Map.of("displayOrder", 0)), 5);
+
+        Map<String, Object> subCategory = Map.of("name", "Scratch sub", "budgetLimit", 20.0);
+        assertStatements("POST /v1/categories/{id}/subcategories", statements(
+                post("/v1/categories/" + categoryId + "/subcategories"), subCategory), 2);
+        UUID subCategoryId = UUID.fromString(call(post("/v1/categories/" + categoryId + "/subcategories"),
+                Map.of("name", "Second sub")).path("id").asText());
+        assertStatements("PUT /v1/categories/subcategories/{id}", statements(
+                put("/v1/categories/subcategories/" + subCategoryId), Map.of("name", "Renamed sub")), 1);
+        assertStatements("DELETE /v1/categories/subcategories/{id}", statements(
+                delete("/v1/categories/subcategories/" + subCategoryId)), 1);
+        assertStatements("DELETE /v1/categories/{id}", statements(delete("/v1/categories/" + categoryId)), 1);
+    }
+
+    @Test
+    void budgetReads() throws Exception {
+        assertStatements("GET /v1/budgets", readStatements("/v1/budgets"), 0);
+        assertStatements("GET /v1/budgets/{id}", readStatements("/v1/budgets/" + budgetIds.get(0)), 0);
+        assertStatements("GET /v1/budgets/{id}/status", readStatements("/v1/budgets/" + budgetIds.get(0) + "/status"), 0);
+        assertStatements("GET /v1/budgets/status", readStatements("/v1/budgets/status"), 0);
+    }
+
+    @Test
+    void budgetWrites() throws Exception {
+        Map<String, Object> budget = Map.of("categoryId", categoryIds.get(2), "limitAmount", 900, "period", "weekly");
+        assertStatements("POST /v1/budgets", statements(post("/v1/budgets"), budget), 1);
+        UUID budgetId = UUID.fromString(call(post("/v1/budgets"), Map.of(
+                "categoryId", categoryIds.get(2), "limitAmount", 9000, "period", "annual")).path("id").asText());
+        assertStatements("PUT /v1/budgets/{id}", statements(put("/v1/budgets/" + budgetId), Map.of(
+                "categoryId", categoryIds.get(2), "limitAmount", 9500, "period", "annual")), 1);
+        assertStatements("DELETE /v1/budgets/{id}", statements(delete("/v1/budgets/" + budgetId)), 1);
+    }
+
+    @Test
+    void dashboardReads() throws Exception {
+        LocalDate lastYear = LocalDate.now().minusYears(1);
+        assertStatements("GET /v1/dashboard/summary", readStatements("/v1/dashboard/summary"), 5);
+        assertStatements("GET /v1/dashboard/summary closed month", readStatements("/v1/dashboard/summary?year="
+                + lastYear.getYear() + "&month=" + lastYear.getMonthValue()), 5);
+        assertStatements("GET /v1/dashboard/weekly", readStatements("/v1/dashboard/weekly"), 0);
+        assertStatements("GET /v1/dashboard/monthly", readStatements("/v1/dashboard/monthly"), 0);
+        assertStatements("GET /v1/dashboard/annual", readStatements("/v1/dashboard/annual"), 0);
+        assertStatements("GET /v1/dashboard/annual closed year", readStatements("/v1/dashboard/annual?year="
+                + lastYear.getYear()), 0);
+        assertStatements("GET /v1/dashboard/category-breakdown", readStatements("/v1/dashboard/category-breakdown"), 2);
+        assertStatements("GET /v1/dashboard/category-breakdown annual", readStatements(
+                "/v1/dashboard/category-breakdown?period=annual"), 2);
+    }
+
+    @Test
+    void alertEndpoints() throws Exception {
+        assertStatements("GET /v1/alerts", readStatements("/v1/alerts"), 1);
+        assertStatements("GET /v1/alerts?shape=normalized", readStatements("/v1/alerts?shape=normalized"), 1);
+        assertStatements("GET /v1/alerts/unread", readStatements("/v1/alerts/unread"), 1);
+        assertStatements("GET /v1/alerts/unread?shape=normalized", readStatements("/v1/alerts/unread?shape=normalized"), 1);
+        assertStatements("GET /v1/alerts/count", readStatements("/v1/alerts/count"), 0);
+
+        JsonNode alerts = call(get("/v1/alerts"), null);
+        UUID alertId = UUID.fromString(alerts.get(0).path("id").asText());
+        assertStatements("PUT /v1/alerts/{id}/read", statements(put("/v1/alerts/" + alertId + "/read")), 1);
+        assertStatements("PUT /v1/alerts/read-all", statements(put("/v1/alerts/read-all")), 1);
+    }
+
+    @Test
+    void bootstrapAndBatch() throws Exception {
+        assertStatements("GET /v1/bootstrap", readStatements("/v1/bootstrap"), 6);
+        assertStatements("POST /v1/batch", statements(post("/v1/batch"), Map.of("requests", List.of(
+                Map.of("method", "GET", "path", "/v1/categories"),
+                Map.of("method", "GET", "path", "/v1/budgets/status"),
+                Map.of("method", "GET", "path", "/v1/dashboard/summary"),
+                Map.of("method", "GET", "path", "/v1/alerts/count")))), 5);
+    }
+
+    private Map<String, Object> expense(double amount) {
+        return Map.of("categoryId", categoryIds.get(0), "subCategoryId", subCategoryIds.get(0), "amount", amount,
+                "date", LocalDate.now().toString(), "expenseType", "monthly");
+    }
+}
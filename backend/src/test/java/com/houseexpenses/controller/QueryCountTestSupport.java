@@ -0,0 +1,156 @@
+package com.houseexpenses.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Seeds one household through the API and counts the SQL statements each request issues, as
+ * recorded by the per-request statement inspector in http.server.requests.sql.statements.
+ * Budgets are what the endpoints issue today; a change that adds statements per row or per
+ * chart bucket fails the build.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class QueryCountTestSupport {
+
+    protected static final int MONTHS_OF_EXPENSES = 14;
+    protected static final int EXPENSES_PER_SUBCATEGORY_AND_MONTH = 3;
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    protected UUID userId;
+    protected String accessToken;
+    protected String refreshToken;
+    protected final List<UUID> categoryIds = new ArrayList<>();
+    protected final List<UUID> subCategoryIds = new ArrayList<>();
+    protected final List<UUID> budgetIds = new ArrayList<>();
+    protected final List<UUID> expenseIds = new ArrayList<>();
+
+    @BeforeAll
+    void seedHousehold() throws Exception {
+        userId = UUID.randomUUID();
+        JsonNode tokens = call(post("/v1/auth/session"), Map.of("userId", userId.toString(), "displayName", "Test"));
+        accessToken = tokens.path("accessToken").asText();
+        refreshToken = tokens.path("refreshToken").asText();
+
+        for (int c = 0; c < 3; c++) {
+            UUID categoryId = id(call(post("/v1/categories"), Map.of(
+                    "name", "Category " + c, "icon", "home", "color", "#12345" + c, "expenseType", "monthly")));
+            categoryIds.add(categoryId);
+            for (int s = 0; s < 3; s++) {
+                subCategoryIds.add(id(call(post("/v1/categories/" + categoryId + "/subcategories"), Map.of(
+                        "name", "Sub " + c + "." + s, "budgetLimit", 150.0, "isMandatory", s == 0,
+                        "fixedAmount", s == 0 ? 40.0 : 0.0))));
+            }
+            budgetIds.add(id(call(post("/v1/budgets"), Map.of(
+                    "categoryId", categoryId, "limitAmount", 500, "warningThreshold", 80, "period", "monthly"))));
+        }
+        budgetIds.add(id(call(post("/v1/budgets"), Map.of(
+                "categoryId", categoryIds.get(0), "subCategoryId", subCategoryIds.get(1),
+                "limitAmount", 100, "period", "monthly"))));
+        budgetIds.add(id(call(post("/v1/budgets"), Map.of(
+                "categoryId", categoryIds.get(1), "limitAmount", 4000, "period", "annual"))));
+
+        LocalDate today = LocalDate.now();
+        for (int month = 0; month < MONTHS_OF_EXPENSES; month++) {
+            List<Map<String, Object>> expenses = new ArrayList<>();
+            for (int sub = 0; sub < subCategoryIds.size(); sub++) {
+                for (int i = 0; i < EXPENSES_PER_SUBCATEGORY_AND_MONTH; i++) {
+                    LocalDate date = today.minusMonths(month).withDayOfMonth(1 + (sub * 3 + i * 7) % 28);
+                    if (date.isAfter(today)) {
+                        date = today;
+                    }
+                    expenses.add(Map.of("categoryId", categoryIds.get(sub / 3), "subCategoryId", subCategoryIds.get(sub),
+                            "amount", 12.5 + sub + i, "description", "Expense " + month + "." + sub + "." + i,
+                            "date", date.toString(), "expenseType", "monthly"));
+                }
+            }
+            for (JsonNode expense : call(post("/v1/expenses/bulk"), expenses)) {
+                expenseIds.add(id(expense));
+            }
+        }
+        // Over the first category's monthly budget, so there are alerts to list
+        expenseIds.add(id(call(post("/v1/expenses"), Map.of("categoryId", categoryIds.get(0),
+                "subCategoryId", subCategoryIds.get(1), "amount", 450, "date", today.toString()))));
+    }
+
+    /**
+     * Statements issued by a read once the caches it relies on are warm: the request is sent
+     * twice and the second one is counted.
+     */
+    protected int readStatements(String path) throws Exception {
+        statements(get(path));
+        return statements(get(path));
+    }
+
+    protected int statements(MockHttpServletRequestBuilder request) throws Exception {
+        return statements(request, null);
+    }
+
+    protected int statements(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        double before = recordedStatements();
+        call(request, body);
+        return (int) Math.round(recordedStatements() - before);
+    }
+
+    protected void assertStatements(String endpoint, int count, int budget) {
+        assertThat(count)
+                .as("SQL statements for %s", endpoint)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    protected JsonNode call(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        if (accessToken != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+        }
+        byte[] response = mockMvc.perform(request)
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsByteArray();
+        return response.length > 0 ? objectMapper.readTree(response).path("data") : null;
+    }
+
+    private double recordedStatements() {
+        return meterRegistry.find("http.server.requests.sql.statements").summaries().stream()
+                .mapToDouble(DistributionSummary::totalAmount)
+                .sum();
+    }
+
+    private static UUID id(JsonNode node) {
+        return UUID.fromString(node.path("id").asText());
+    }
+}
@@ -0,0 +1,37 @@
+package com.houseexpenses.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+
+/**
+ * Statement budgets for the endpoints that aggregate expenses, with the in-memory expense
+ * columns turned off so the sums run in SQL.
+ */
+@TestPropertySource(properties = "app.expense-columns.enabled=false")
+class SqlAggregationQueryCountTest extends QueryCountTestSupport {
+
+    @Test
+    void dashboardReads() throws Exception {
+        LocalDate lastYear = LocalDate.now().minusYears(1);
+        assertStatements("GET /v1/dashboard/summary", readStatements("/v1/dashboard/summary"), 9);
+        assertStatements("GET /v1/dashboard/summary closed month", readStatements("/v1/dashboard/summary?year="
+                + lastYear.getYear() + "&month=" + lastYear.getMonthValue()), 9);
+        assertStatements("GET /v1/dashboard/weekly", readStatements("/v1/dashboard/weekly"), 7);
+        assertStatements("GET /v1/dashboard/monthly", readStatements("/v1/dashboard/monthly"), 5);
+        assertStatements("GET /v1/dashboard/annual", readStatements("/v1/dashboard/annual"), 10);
+        assertStatements("GET /v1/dashboard/category-breakdown", readStatements("/v1/dashboard/category-breakdown"), 3);
+    }
+
+    @Test
+    void budgetStatus() throws Exception {
+        assertStatements("GET /v1/budgets/{id}/status", readStatements("/v1/budgets/" + budgetIds.get(0) + "/status"), 1);
+        assertStatements("GET /v1/budgets/status", readStatements("/v1/budgets/status"), 5);
+    }
+
+    @Test
+    void bootstrap() throws Exception {
+        assertStatements("GET /v1/bootstrap", readStatements("/v1/bootstrap"), 27);
+    }
+}
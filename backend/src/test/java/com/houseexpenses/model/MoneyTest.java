@@ -0,0 +1,124 @@
+package com.houseexpenses.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Money against the BigDecimal arithmetic it replaces, at scale 2 with HALF_UP, over random
+ * amounts of either sign and over exact ties.
+ */
+class MoneyTest {
+
+    private static final int SAMPLES = 100_000;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final Random random = new Random(20240615);
+
+    @Test
+    void dividedByMatchesBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long cents = amount();
+            int parts = 1 + random.nextInt(400);
+            assertDividedBy(cents, parts);
+            assertDividedBy(-cents, parts);
+        }
+    }
+
+    @Test
+    void dividedByRoundsTiesAwayFromZero() {
+        for (int i = 0; i < SAMPLES; i++) {
+            int parts = 2 * (1 + random.nextInt(200));
+            long cents = parts * (long) random.nextInt(1_000_000) + parts / 2;
+            assertDividedBy(cents, parts);
+            assertDividedBy(-cents, parts);
+        }
+        assertThat(Money.ofCents(5).dividedBy(2)).isEqualTo(Money.ofCents(3));
+        assertThat(Money.ofCents(-5).dividedBy(2)).isEqualTo(Money.ofCents(-3));
+        assertThat(Money.ofCents(-4).dividedBy(3)).isEqualTo(Money.ofCents(-1));
+    }
+
+    @Test
+    void basisPointsOfMatchesBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long cents = amount();
+            long whole = 1 + Math.abs(amount());
+            assertBasisPoints(cents, whole);
+            assertBasisPoints(-cents, whole);
+            assertBasisPoints(cents, -whole);
+        }
+    }
+
+    @Test
+    void basisPointsOfRoundsTiesAwayFromZero() {
+        for (int i = 0; i < SAMPLES; i++) {
+            // cents * 10000 / whole lands on a half: whole = 20000 * k, cents = (2n + 1) * k
+            long k = 1 + random.nextInt(1000);
+            long cents = (2L * random.nextInt(100_000) + 1) * k;
+            assertBasisPoints(cents, 20_000 * k);
+            assertBasisPoints(-cents, 20_000 * k);
+        }
+        assertThat(Money.ofCents(1).basisPointsOf(Money.ofCents(20_000))).isEqualTo(1);
+        assertThat(Money.ofCents(-1).basisPointsOf(Money.ofCents(20_000))).isEqualTo(-1);
+    }
+
+    @Test
+    void ofDoubleMatchesBigDecimalValueOf() {
+        for (int i = 0; i < SAMPLES; i++) {
+            double amount = (random.nextDouble() - 0.5) * 2_000_000;
+            assertOfDouble(amount);
+            // Amounts typed with three decimals, half of them ties at the third
+            assertOfDouble(Math.round(amount * 1000) / 1000.0);
+            assertOfDouble((Math.round(amount * 100) + 0.5) / 100.0);
+        }
+        assertThat(Money.of(2.675)).isEqualTo(Money.ofCents(268));
+        assertThat(Money.of(-2.675)).isEqualTo(Money.ofCents(-268));
+        assertThat(Money.of(0.125)).isEqualTo(Money.ofCents(13));
+    }
+
+    @Test
+    void ofBigDecimalRoundTrips() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Money money = Money.ofCents(random.nextBoolean() ? amount() : -amount());
+            assertThat(Money.of(money.toBigDecimal())).isEqualTo(money);
+            assertThat(Money.of(new BigDecimal(money.toString()))).isEqualTo(money);
+
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 10_000_000_000L, random.nextInt(7));
+            assertThat(Money.of(amount).toBigDecimal()).isEqualTo(amount.setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+
+    // Up to a million in cents, skewed towards small amounts
+    private long amount() {
+        return switch (random.nextInt(3)) {
+            case 0 -> random.nextInt(100);
+            case 1 -> random.nextInt(100_000);
+            default -> random.nextLong(100_000_000_00L);
+        };
+    }
+
+    private static void assertDividedBy(long cents, int parts) {
+        BigDecimal expected = BigDecimal.valueOf(cents, 2).divide(BigDecimal.valueOf(parts), 2, RoundingMode.HALF_UP);
+        assertThat(Money.ofCents(cents).dividedBy(parts).toBigDecimal())
+                .as("%d cents / %d", cents, parts)
+                .isEqualTo(expected);
+    }
+
+    private static void assertBasisPoints(long cents, long whole) {
+        BigDecimal expected = BigDecimal.valueOf(cents, 2).multiply(HUNDRED)
+                .divide(BigDecimal.valueOf(whole, 2), 2, RoundingMode.HALF_UP);
+        assertThat(Money.percentage(Money.ofCents(cents).basisPointsOf(Money.ofCents(whole))))
+                .as("%d cents of %d", cents, whole)
+                .isEqualTo(expected);
+    }
+
+    private static void assertOfDouble(double amount) {
+        assertThat(Money.of(amount).toBigDecimal())
+                .as("%s", amount)
+                .isEqualTo(BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,161 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.model.Money;
+import com.houseexpenses.repository.CategoryRepository;
+import com.houseexpenses.repository.ExpenseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Restoring a user from a segment file written before a restart, against a database that
+ * changed in the meantime.
+ */
+class ExpenseColumnStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 15);
+
+    @TempDir
+    Path segmentDir;
+
+    private final ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final UUID userId = UUID.randomUUID();
+    private final UUID categoryId = UUID.randomUUID();
+    private final SettableClock clock = new SettableClock(Instant.parse("2024-06-15T12:00:00Z"));
+
+    @Test
+    void dropsRowsDeletedAfterTheWatermarkEvenWhenTheCountMatches() {
+        Object[] deleted = row(70_00);
+        Object[] kept = row(30_00);
+        writeSegment(deleted, kept);
+
+        // One row deleted and one inserted since the flush: the row count is unchanged
+        Object[] inserted = row(20_00);
+        when(expenseRepository.findColumnsByUserIdUpdatedAfter(eq(userId), any()))
+                .thenReturn(rows(inserted));
+        when(expenseRepository.findIdsByUserId(userId)).thenReturn(List.of(id(kept), id(inserted)));
+        when(categoryRepository.findActiveFlagsByUserId(userId)).thenReturn(rows(new Object[]{categoryId, true}));
+
+        ExpenseColumnStore store = store();
+        assertThat(store.get(userId).size()).isEqualTo(2);
+        assertThat(store.sumByUserIdAndDateRange(userId, DAY, DAY)).isEqualTo(Money.ofCents(50_00));
+        // Only the load before the restart went to the database
+        verify(expenseRepository, times(1)).findColumnsByUserId(userId);
+    }
+
+    @Test
+    void loadsFromTheDatabaseWhenTheSegmentIsMissingRows() {
+        Object[] kept = row(30_00);
+        writeSegment(kept);
+
+        // A row the file never saw and that is not newer than the watermark
+        Object[] missing = row(45_00);
+        when(expenseRepository.findColumnsByUserIdUpdatedAfter(eq(userId), any())).thenReturn(List.of());
+        when(expenseRepository.findIdsByUserId(userId)).thenReturn(List.of(id(kept), id(missing)));
+        when(categoryRepository.findActiveFlagsByUserId(userId)).thenReturn(rows(new Object[]{categoryId, true}));
+        when(expenseRepository.findColumnsByUserId(userId)).thenReturn(rows(kept, missing));
+
+        ExpenseColumnStore store = store();
+        assertThat(store.get(userId).size()).isEqualTo(2);
+        assertThat(store.sumByUserIdAndDateRange(userId, DAY, DAY)).isEqualTo(Money.ofCents(75_00));
+    }
+
+    @Test
+    void replaysEditsOtherInstancesMadeAfterTheLoadBeforeTheFlush() {
+        Object[] edited = row(30_00);
+        when(expenseRepository.findColumnsByUserId(userId)).thenReturn(rows(edited));
+        ExpenseColumnStore beforeRestart = store();
+        beforeRestart.get(userId);
+
+        // Another instance edits the amount, with cache invalidation off, well before the flush
+        Instant editedAt = clock.instant().plus(Duration.ofMinutes(2));
+        Object[] afterEdit = edited.clone();
+        afterEdit[2] = Money.ofCents(55_00);
+        clock.set(editedAt.plus(Duration.ofMinutes(7)));
+        beforeRestart.flushSegments();
+
+        when(expenseRepository.findColumnsByUserIdUpdatedAfter(eq(userId), any())).thenAnswer(invocation ->
+                invocation.<OffsetDateTime>getArgument(1).toInstant().isBefore(editedAt)
+                        ? rows(afterEdit) : List.of());
+        when(expenseRepository.findIdsByUserId(userId)).thenReturn(List.of(id(edited)));
+        when(categoryRepository.findActiveFlagsByUserId(userId)).thenReturn(rows(new Object[]{categoryId, true}));
+
+        ExpenseColumnStore store = store();
+        assertThat(store.get(userId).size()).isEqualTo(1);
+        assertThat(store.sumByUserIdAndDateRange(userId, DAY, DAY)).isEqualTo(Money.ofCents(55_00));
+        verify(expenseRepository, times(1)).findColumnsByUserId(userId);
+    }
+
+    private void writeSegment(Object[]... rows) {
+        when(expenseRepository.findColumnsByUserId(userId)).thenReturn(rows(rows));
+        ExpenseColumnStore beforeRestart = store();
+        beforeRestart.get(userId);
+        beforeRestart.flushSegments();
+    }
+
+    private ExpenseColumnStore store() {
+        return new ExpenseColumnStore(expenseRepository, categoryRepository,
+                new ExpenseSegmentFiles(segmentDir.toString()), new SimpleMeterRegistry(), true, 1 << 20, 600_000, clock);
+    }
+
+    private Object[] row(long cents) {
+        return new Object[]{UUID.randomUUID(), DAY, Money.ofCents(cents), categoryId, true, null};
+    }
+
+    private static UUID id(Object[] row) {
+        return (UUID) row[0];
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static final class SettableClock extends Clock {
+
+        private Instant instant;
+
+        SettableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
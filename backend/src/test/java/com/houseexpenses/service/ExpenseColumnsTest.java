@@ -0,0 +1,95 @@
+package com.houseexpenses.service;
+
+import com.houseexpenses.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Changes applied to indexed columns, checked against columns built from scratch from the same
+ * rows.
+ */
+class ExpenseColumnsTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private final Random random = new Random(42);
+    private final List<UUID> categoryIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+    private final List<UUID> subCategoryIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+    @Test
+    void changesKeepTheRangeIndexInStepWithTheRows() {
+        Map<UUID, Object[]> rows = new LinkedHashMap<>();
+        for (int i = 0; i < 200; i++) {
+            Object[] row = row(UUID.randomUUID());
+            rows.put((UUID) row[0], row);
+        }
+        ExpenseColumns columns = ExpenseColumns.of(sorted(rows)).indexed();
+
+        for (int i = 0; i < 500; i++) {
+            List<UUID> ids = new ArrayList<>(rows.keySet());
+            UUID existing = ids.get(random.nextInt(ids.size()));
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    Object[] row = row(UUID.randomUUID());
+                    rows.put((UUID) row[0], row);
+                    columns = columns.withRow(row);
+                }
+                case 1 -> {
+                    rows.remove(existing);
+                    columns = columns.withoutExpense(existing);
+                }
+                case 2 -> {
+                    // Same day, new amount and possibly new category and subcategory
+                    Object[] row = row(existing);
+                    row[1] = rows.get(existing)[1];
+                    rows.put(existing, row);
+                    columns = columns.withRow(row);
+                }
+                default -> {
+                    Object[] row = row(existing);
+                    rows.put(existing, row);
+                    columns = columns.withRow(row);
+                }
+            }
+        }
+
+        ExpenseColumns rebuilt = ExpenseColumns.of(sorted(rows));
+        assertThat(columns.size()).isEqualTo(rows.size());
+        for (int i = 0; i < 50; i++) {
+            LocalDate from = START.plusDays(random.nextInt(120));
+            LocalDate to = from.plusDays(random.nextInt(60));
+            assertThat(columns.sum(from, to)).isEqualTo(rebuilt.sum(from, to));
+            for (UUID categoryId : categoryIds) {
+                assertThat(columns.sumByCategory(categoryId, from, to))
+                        .isEqualTo(rebuilt.sumByCategory(categoryId, from, to));
+            }
+            for (UUID subCategoryId : subCategoryIds) {
+                assertThat(columns.sumBySubCategory(subCategoryId, from, to))
+                        .isEqualTo(rebuilt.sumBySubCategory(subCategoryId, from, to));
+            }
+        }
+    }
+
+    private Object[] row(UUID id) {
+        int category = random.nextInt(categoryIds.size());
+        UUID subCategoryId = random.nextInt(4) == 0 ? null : subCategoryIds.get(random.nextInt(subCategoryIds.size()));
+        return new Object[]{id, START.plusDays(random.nextInt(120)), Money.ofCents(1 + random.nextInt(50_000)),
+                categoryIds.get(category), true, subCategoryId};
+    }
+
+    private static List<Object[]> sorted(Map<UUID, Object[]> rows) {
+        List<Object[]> sorted = new ArrayList<>(rows.values());
+        sorted.sort(Comparator.comparing(row -> (LocalDate) row[1]));
+        return sorted;
+    }
+}